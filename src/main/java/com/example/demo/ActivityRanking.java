@@ -0,0 +1,144 @@
+package com.example.demo;
+
+// Indexed max-heap of users ordered by activity score (posts created + shares made),
+// ties broken by lower user ID. Every user knows its heap slot (User.activitySlot), so a
+// score change is an O(log U) sift instead of a rescan, and the top N are read in
+// O(N log N) by walking the heap with a small candidate heap.
+class ActivityRanking {
+    private User[] heap = new User[16];
+    private int[] scores = new int[16]; // scores[i] belongs to heap[i]
+    private int size;
+
+    public int size() { return size; }
+
+    public void add(User user) {
+        if (size == heap.length) {
+            User[] grownHeap = new User[size * 2];
+            int[] grownScores = new int[size * 2];
+            System.arraycopy(heap, 0, grownHeap, 0, size);
+            System.arraycopy(scores, 0, grownScores, 0, size);
+            heap = grownHeap;
+            scores = grownScores;
+        }
+        heap[size] = user;
+        scores[size] = 0;
+        user.activitySlot = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    public void remove(User user) {
+        int slot = user.activitySlot;
+        if (slot < 0) return;
+        size--;
+        if (slot != size) {
+            move(size, slot);
+            heap[size] = null;
+            siftDown(slot);
+            siftUp(slot);
+        } else {
+            heap[size] = null;
+        }
+        user.activitySlot = -1;
+    }
+
+    public void adjust(User user, int delta) {
+        int slot = user.activitySlot;
+        if (slot < 0 || delta == 0) return;
+        scores[slot] += delta;
+        if (delta > 0) siftUp(slot);
+        else siftDown(slot);
+    }
+
+    public int scoreOf(User user) {
+        return (user.activitySlot >= 0) ? scores[user.activitySlot] : 0;
+    }
+
+    // The n highest-scoring users, best first.
+    public User[] top(int n) {
+        int count = Math.max(0, Math.min(n, size));
+        User[] result = new User[count];
+        if (count == 0) return result;
+
+        // Candidate heap of heap slots; a slot's children only become candidates once it is taken.
+        int[] candidates = new int[2 * count + 1];
+        int candidateCount = 0;
+        candidates[candidateCount++] = 0;
+        for (int r = 0; r < count; r++) {
+            int best = candidates[0];
+            candidates[0] = candidates[--candidateCount];
+            siftDownCandidates(candidates, candidateCount, 0);
+            result[r] = heap[best];
+
+            for (int child = 2 * best + 1; child <= 2 * best + 2 && child < size; child++) {
+                int i = candidateCount++;
+                candidates[i] = child;
+                while (i > 0 && better(candidates[i], candidates[(i - 1) / 2])) {
+                    int parent = (i - 1) / 2;
+                    int tmp = candidates[i];
+                    candidates[i] = candidates[parent];
+                    candidates[parent] = tmp;
+                    i = parent;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void siftDownCandidates(int[] candidates, int count, int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= count) return;
+            int best = (left + 1 < count && better(candidates[left + 1], candidates[left])) ? left + 1 : left;
+            if (!better(candidates[best], candidates[i])) return;
+            int tmp = candidates[i];
+            candidates[i] = candidates[best];
+            candidates[best] = tmp;
+            i = best;
+        }
+    }
+
+    // --- Heap maintenance ---
+
+    private boolean better(int slotA, int slotB) {
+        if (scores[slotA] != scores[slotB]) return scores[slotA] > scores[slotB];
+        return heap[slotA].getUserId() < heap[slotB].getUserId();
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (!better(slot, parent)) return;
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) return;
+            int best = (left + 1 < size && better(left + 1, left)) ? left + 1 : left;
+            if (!better(best, slot)) return;
+            swap(slot, best);
+            slot = best;
+        }
+    }
+
+    private void swap(int a, int b) {
+        User user = heap[a];
+        int score = scores[a];
+        heap[a] = heap[b];
+        scores[a] = scores[b];
+        heap[b] = user;
+        scores[b] = score;
+        heap[a].activitySlot = a;
+        heap[b].activitySlot = b;
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        scores[to] = scores[from];
+        heap[to].activitySlot = to;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+// Line-by-line CSV reader that parses straight from the bytes of a FileChannel.
+// Field boundaries are kept as offsets into a reusable buffer, ints are parsed from the
+// bytes directly, and a String is only created when a text field is actually requested.
+// Lines and fields are trimmed the same way the old Scanner/String.split loaders did.
+class CsvChannelReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long end;       // file offset where this reader's region stops
+    private long filePosition;    // file offset of buf[limit]
+
+    private byte[] buf;
+    private ByteBuffer window;    // wraps buf, used for channel reads
+    private int pos;              // first unread byte
+    private int limit;            // end of valid bytes in buf
+    private boolean eof;
+
+    // Current line (trimmed) and its fields (untrimmed bounds; accessors trim)
+    private int lineStart, lineEnd;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private int fieldCount;
+
+    public CsvChannelReader(String filename) throws IOException {
+        this(new FileInputStream(filename).getChannel(), 0, -1, true);
+    }
+
+    // Reads only the region [start, end) of a shared channel. 'start' must be the first byte
+    // of a line and 'end' either a line start or the file size. Uses positional reads, so
+    // several readers can work on different regions of one channel concurrently.
+    public CsvChannelReader(FileChannel channel, long start, long end) throws IOException {
+        this(channel, start, end, false);
+    }
+
+    private CsvChannelReader(FileChannel channel, long start, long end, boolean ownsChannel) throws IOException {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.end = (end < 0) ? channel.size() : end;
+        this.filePosition = start;
+        long regionSize = this.end - start;
+        this.buf = new byte[(int) Math.max(64, Math.min(DEFAULT_BUFFER_SIZE, regionSize + 1))];
+        this.window = ByteBuffer.wrap(buf);
+    }
+
+    // --- Line iteration ---
+
+    // Advances to the next line; returns false once the region is exhausted.
+    public boolean nextLine() throws IOException {
+        int newline = indexOfNewline(pos);
+        while (newline < 0 && !eof) {
+            int scanned = limit - pos;
+            fill();
+            newline = indexOfNewline(pos + scanned);
+        }
+        if (newline < 0) {
+            if (pos >= limit) return false;
+            newline = limit; // last line without a trailing newline
+        }
+
+        int start = pos;
+        int stop = newline;
+        pos = (newline < limit) ? newline + 1 : limit;
+
+        // Trim like String.trim() (this also drops the '\r' of CRLF files)
+        while (start < stop && (buf[start] & 0xFF) <= ' ') start++;
+        while (stop > start && (buf[stop - 1] & 0xFF) <= ' ') stop--;
+        lineStart = start;
+        lineEnd = stop;
+        splitFields();
+        return true;
+    }
+
+    private int indexOfNewline(int from) {
+        for (int i = from; i < limit; i++) {
+            if (buf[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    // Moves the unread tail to the front of the buffer (growing it for very long lines) and reads more.
+    private void fill() throws IOException {
+        int remaining = limit - pos;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, remaining);
+        } else if (remaining == buf.length) {
+            byte[] grown = new byte[buf.length * 2];
+            System.arraycopy(buf, 0, grown, 0, remaining);
+            buf = grown;
+            window = ByteBuffer.wrap(buf);
+        }
+        pos = 0;
+        limit = remaining;
+
+        long left = end - filePosition;
+        if (left <= 0) {
+            eof = true;
+            return;
+        }
+        window.limit((int) Math.min(buf.length, limit + left));
+        window.position(limit);
+        int read = channel.read(window, filePosition);
+        if (read < 0) {
+            eof = true;
+            return;
+        }
+        filePosition += read;
+        limit += read;
+    }
+
+    private void splitFields() {
+        fieldCount = 0;
+        if (lineStart == lineEnd) return;
+
+        int start = lineStart;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || buf[i] == ',') {
+                if (fieldCount == fieldStart.length) {
+                    int[] grownStart = new int[fieldCount * 2];
+                    int[] grownEnd = new int[fieldCount * 2];
+                    System.arraycopy(fieldStart, 0, grownStart, 0, fieldCount);
+                    System.arraycopy(fieldEnd, 0, grownEnd, 0, fieldCount);
+                    fieldStart = grownStart;
+                    fieldEnd = grownEnd;
+                }
+                fieldStart[fieldCount] = start;
+                fieldEnd[fieldCount] = i;
+                fieldCount++;
+                start = i + 1;
+            }
+        }
+        // String.split drops trailing empty fields; keep the same field counts
+        while (fieldCount > 0 && fieldStart[fieldCount - 1] == fieldEnd[fieldCount - 1]) {
+            fieldCount--;
+        }
+    }
+
+    // --- Current line accessors ---
+
+    public boolean isBlank() { return lineStart == lineEnd; }
+
+    public int fieldCount() { return fieldCount; }
+
+    // Parses field i as a decimal int; throws NumberFormatException like Integer.parseInt.
+    public int intField(int i) {
+        int s = fieldStart[i];
+        int e = fieldEnd[i];
+        while (s < e && (buf[s] & 0xFF) <= ' ') s++;
+        while (e > s && (buf[e - 1] & 0xFF) <= ' ') e--;
+
+        boolean negative = false;
+        if (s < e && (buf[s] == '-' || buf[s] == '+')) {
+            negative = buf[s] == '-';
+            s++;
+        }
+        if (s == e) throw new NumberFormatException("For input string: \"" + fieldText(i) + "\"");
+
+        long value = 0;
+        for (int p = s; p < e; p++) {
+            int digit = buf[p] - '0';
+            if (digit < 0 || digit > 9) throw new NumberFormatException("For input string: \"" + fieldText(i) + "\"");
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) throw new NumberFormatException("For input string: \"" + fieldText(i) + "\"");
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw new NumberFormatException("For input string: \"" + fieldText(i) + "\"");
+        return (int) value;
+    }
+
+    // Field i as trimmed UTF-8 text.
+    public String stringField(int i) {
+        return fieldText(i).trim();
+    }
+
+    private String fieldText(int i) {
+        return new String(buf, fieldStart[i], fieldEnd[i] - fieldStart[i], StandardCharsets.UTF_8);
+    }
+
+    // Whole trimmed line, for warnings.
+    public String line() {
+        return new String(buf, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ownsChannel) channel.close();
+    }
+}
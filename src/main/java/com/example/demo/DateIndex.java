@@ -0,0 +1,114 @@
+package com.example.demo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Network-wide index of posts by creation day.
+//
+// Each epoch day with posts has a bucket (posts in no particular order; every post remembers
+// its slot, so removal is a swap with the last entry). The days that have buckets are kept in
+// a sorted int[], so a range query is two binary searches plus a walk over the buckets in range.
+// Posts whose date could not be parsed are not indexed.
+class DateIndex {
+    private static final class DayBucket {
+        Post[] posts = new Post[4];
+        int count;
+    }
+
+    private final IntHashMap<DayBucket> buckets = new IntHashMap<>();
+    private int[] days = new int[64]; // sorted epoch days that have a bucket
+    private int dayCount;
+    private int size;
+
+    public int size() { return size; }
+
+    public void add(Post post) {
+        LocalDate date = post.getParsedDate();
+        if (date == null) return;
+        int day = (int) date.toEpochDay();
+
+        DayBucket bucket = buckets.get(day);
+        if (bucket == null) {
+            bucket = new DayBucket();
+            buckets.put(day, bucket);
+            insertDay(day);
+        }
+        if (bucket.count == bucket.posts.length) {
+            bucket.posts = Arrays.copyOf(bucket.posts, bucket.count * 2);
+        }
+        post.dateSlot = bucket.count;
+        bucket.posts[bucket.count++] = post;
+        size++;
+    }
+
+    public void remove(Post post) {
+        if (post.dateSlot < 0) return;
+        int day = (int) post.getParsedDate().toEpochDay();
+        DayBucket bucket = buckets.get(day);
+        int slot = post.dateSlot;
+
+        Post last = bucket.posts[--bucket.count];
+        bucket.posts[slot] = last;
+        last.dateSlot = slot;
+        bucket.posts[bucket.count] = null;
+        post.dateSlot = -1;
+        size--;
+
+        if (bucket.count == 0) {
+            buckets.remove(day);
+            int i = Arrays.binarySearch(days, 0, dayCount, day);
+            System.arraycopy(days, i + 1, days, i, dayCount - i - 1);
+            dayCount--;
+        }
+    }
+
+    // Posts dated within [from, to] (inclusive), ordered by date and then post ID.
+    public List<Post> between(LocalDate from, LocalDate to) {
+        List<Post> result = new ArrayList<>();
+        int first = lowerBound((int) from.toEpochDay());
+        int last = lowerBound((int) to.toEpochDay() + 1);
+        for (int i = first; i < last; i++) {
+            DayBucket bucket = buckets.get(days[i]);
+            int start = result.size();
+            for (int p = 0; p < bucket.count; p++) {
+                result.add(bucket.posts[p]);
+            }
+            result.subList(start, result.size()).sort((a, b) -> Integer.compare(a.getPostId(), b.getPostId()));
+        }
+        return result;
+    }
+
+    // Number of posts dated within [from, to], without materializing them.
+    public int countBetween(LocalDate from, LocalDate to) {
+        int first = lowerBound((int) from.toEpochDay());
+        int last = lowerBound((int) to.toEpochDay() + 1);
+        int count = 0;
+        for (int i = first; i < last; i++) {
+            count += buckets.get(days[i]).count;
+        }
+        return count;
+    }
+
+    private void insertDay(int day) {
+        int i = lowerBound(day);
+        if (dayCount == days.length) {
+            days = Arrays.copyOf(days, dayCount * 2);
+        }
+        System.arraycopy(days, i, days, i + 1, dayCount - i);
+        days[i] = day;
+        dayCount++;
+    }
+
+    // First index in days[0, dayCount) whose day is >= 'day'.
+    private int lowerBound(int day) {
+        int low = 0, high = dayCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
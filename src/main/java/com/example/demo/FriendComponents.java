@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import java.util.Arrays;
+
+// Connected components of the friendship graph, as a union-find over dense user slots.
+//
+// Every user gets a slot (User.componentSlot) when added; a friendship unions the two slots
+// (union by size, path halving), so queries are near O(1) and never walk the graph. A histogram
+// of component sizes is updated on every union. Union-find cannot split components, so
+// SocialNetwork discards this structure when a friendship or user is removed and rebuilds it
+// from the friend lists on the next query.
+class FriendComponents {
+    private int[] parent = new int[64];
+    private int[] size = new int[64];        // component size, valid at roots
+    private User[] users = new User[64];     // slot -> user
+    private int slots;
+    private int components;
+    private int[] countBySize = new int[65]; // number of components of each size
+
+    // Builds the components of the current network in O(V + E).
+    static FriendComponents build(UserNode userListHead) {
+        FriendComponents result = new FriendComponents();
+        for (UserNode node = userListHead; node != null; node = node.next) {
+            result.addUser(node.user);
+        }
+        for (UserNode node = userListHead; node != null; node = node.next) {
+            for (FriendNode friend = node.user.getFriendsListHead(); friend != null; friend = friend.next) {
+                result.union(node.user, friend.friend);
+            }
+        }
+        return result;
+    }
+
+    public void addUser(User user) {
+        if (slots == parent.length) {
+            int capacity = slots * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            size = Arrays.copyOf(size, capacity);
+            users = Arrays.copyOf(users, capacity);
+            countBySize = Arrays.copyOf(countBySize, capacity + 1);
+        }
+        int slot = slots++;
+        parent[slot] = slot;
+        size[slot] = 1;
+        users[slot] = user;
+        user.componentSlot = slot;
+        components++;
+        countBySize[1]++;
+    }
+
+    public void union(User a, User b) {
+        int rootA = find(a.componentSlot);
+        int rootB = find(b.componentSlot);
+        if (rootA == rootB) return;
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        countBySize[size[rootA]]--;
+        countBySize[size[rootB]]--;
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        countBySize[size[rootA]]++;
+        components--;
+    }
+
+    private int find(int slot) {
+        while (parent[slot] != slot) {
+            parent[slot] = parent[parent[slot]]; // path halving
+            slot = parent[slot];
+        }
+        return slot;
+    }
+
+    // --- Queries ---
+
+    public int componentCount() { return components; }
+
+    // Representative user ID of the user's component; equal for all members until components merge.
+    public int componentIdOf(User user) {
+        return users[find(user.componentSlot)].getUserId();
+    }
+
+    public int componentSizeOf(User user) {
+        return size[find(user.componentSlot)];
+    }
+
+    public boolean sameComponent(User a, User b) {
+        return find(a.componentSlot) == find(b.componentSlot);
+    }
+
+    // {component size, number of components of that size} pairs, ascending by size.
+    public int[][] sizeHistogram() {
+        int distinct = 0;
+        for (int s = 1; s <= slots; s++) {
+            if (countBySize[s] > 0) distinct++;
+        }
+        int[][] histogram = new int[distinct][];
+        for (int s = 1, i = 0; s <= slots; s++) {
+            if (countBySize[s] > 0) histogram[i++] = new int[] {s, countBySize[s]};
+        }
+        return histogram;
+    }
+
+    public int largestComponentSize() {
+        for (int s = slots; s > 0; s--) {
+            if (countBySize[s] > 0) return s;
+        }
+        return 0;
+    }
+}
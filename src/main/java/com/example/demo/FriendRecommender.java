@@ -0,0 +1,175 @@
+package com.example.demo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// "People you may know": ranks non-friends by mutual friend count over a FriendshipGraph.
+//
+// For a user u, every friend's neighbor row is walked once (the 2-hop frontier). A dense bitset
+// marks u and u's friends so they are skipped with one word test, a counting array accumulates
+// mutual friends, and a bounded min-heap keeps the best K candidates. All scratch arrays are
+// reset by touching only the entries that were set, so one scratch serves many users and a
+// query costs O(sum of friend degrees + C log K) for C distinct candidates.
+class FriendRecommender {
+    private static final int BATCH_LEAF_USERS = 4096; // users per batch task, each with its own scratch
+
+    // A suggested user and how many friends they share with the requester.
+    static final class Recommendation {
+        private final int userId;
+        private final int mutualFriends;
+
+        Recommendation(int userId, int mutualFriends) {
+            this.userId = userId;
+            this.mutualFriends = mutualFriends;
+        }
+
+        public int getUserId() { return userId; }
+        public int getMutualFriends() { return mutualFriends; }
+
+        @Override
+        public String toString() {
+            return "User ID " + userId + " (" + mutualFriends + " mutual friends)";
+        }
+    }
+
+    private final FriendshipGraph graph;
+
+    FriendRecommender(FriendshipGraph graph) {
+        this.graph = graph;
+    }
+
+    // Per-thread working state, sized to the graph.
+    private static final class Scratch {
+        final long[] excluded;  // bitset: the user and their friends
+        final int[] counts;     // mutual friend count per candidate
+        final int[] touched;    // candidates with a non-zero count
+        final int[] heap;       // top-K candidates, worst at the root
+
+        Scratch(int vertices, int k) {
+            excluded = new long[(vertices + 63) >>> 6];
+            counts = new int[vertices];
+            touched = new int[vertices];
+            heap = new int[Math.max(1, k)];
+        }
+    }
+
+    // Top k suggestions for the user at dense index 'index': most mutual friends first, then lowest user ID.
+    public Recommendation[] recommend(int index, int k) {
+        if (index < 0 || index >= graph.vertexCount() || k <= 0) return new Recommendation[0];
+        return recommend(index, k, new Scratch(graph.vertexCount(), k));
+    }
+
+    private Recommendation[] recommend(int u, int k, Scratch s) {
+        int start = graph.neighborStart(u), end = graph.neighborEnd(u);
+        s.excluded[u >>> 6] |= 1L << u;
+        for (int p = start; p < end; p++) {
+            int friend = graph.neighborAt(p);
+            s.excluded[friend >>> 6] |= 1L << friend;
+        }
+
+        int touchedCount = 0;
+        for (int p = start; p < end; p++) {
+            int friend = graph.neighborAt(p);
+            for (int q = graph.neighborStart(friend), qEnd = graph.neighborEnd(friend); q < qEnd; q++) {
+                int candidate = graph.neighborAt(q);
+                if ((s.excluded[candidate >>> 6] & (1L << candidate)) != 0) continue;
+                if (s.counts[candidate]++ == 0) s.touched[touchedCount++] = candidate;
+            }
+        }
+
+        // Bounded min-heap: the root is the weakest of the best k so far
+        int heapSize = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int candidate = s.touched[t];
+            if (heapSize < k) {
+                s.heap[heapSize] = candidate;
+                siftUp(s.heap, heapSize++, s.counts);
+            } else if (better(candidate, s.heap[0], s.counts)) {
+                s.heap[0] = candidate;
+                siftDown(s.heap, heapSize, 0, s.counts);
+            }
+        }
+
+        Recommendation[] result = new Recommendation[heapSize];
+        for (int r = heapSize - 1; r >= 0; r--) {
+            int candidate = s.heap[0];
+            result[r] = new Recommendation(graph.userIdAt(candidate), s.counts[candidate]);
+            s.heap[0] = s.heap[r];
+            siftDown(s.heap, r, 0, s.counts);
+        }
+
+        // Reset only what was touched
+        for (int t = 0; t < touchedCount; t++) s.counts[s.touched[t]] = 0;
+        s.excluded[u >>> 6] = 0;
+        for (int p = start; p < end; p++) s.excluded[graph.neighborAt(p) >>> 6] = 0;
+        return result;
+    }
+
+    // Suggestions for every user, computed in parallel; result[i] belongs to dense index i.
+    public Recommendation[][] recommendAll(int k, ForkJoinPool pool) {
+        Recommendation[][] result = new Recommendation[graph.vertexCount()][];
+        if (k <= 0) {
+            for (int i = 0; i < result.length; i++) result[i] = new Recommendation[0];
+            return result;
+        }
+        pool.invoke(new BatchTask(0, graph.vertexCount(), k, result));
+        return result;
+    }
+
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, k;
+        private final Recommendation[][] result;
+
+        BatchTask(int from, int to, int k, Recommendation[][] result) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_LEAF_USERS) {
+                Scratch scratch = new Scratch(graph.vertexCount(), k);
+                for (int u = from; u < to; u++) {
+                    result[u] = recommend(u, k, scratch);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(from, mid, k, result), new BatchTask(mid, to, k, result));
+        }
+    }
+
+    // --- Heap order: more mutual friends is better, then the lower dense index (= lower user ID) ---
+
+    private static boolean better(int a, int b, int[] counts) {
+        return counts[a] != counts[b] ? counts[a] > counts[b] : a < b;
+    }
+
+    private static void siftUp(int[] heap, int i, int[] counts) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], counts)) return;
+            int tmp = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int i, int[] counts) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int worst = (left + 1 < size && better(heap[left], heap[left + 1], counts)) ? left + 1 : left;
+            if (!better(heap[i], heap[worst], counts)) return;
+            int tmp = heap[i];
+            heap[i] = heap[worst];
+            heap[worst] = tmp;
+            i = worst;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.demo;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Immutable compressed-sparse-row (CSR) snapshot of the friendship graph.
+// Users are renumbered to dense indices 0..n-1 in ascending user ID order; the friends of
+// index i are neighbors[offsets[i] .. offsets[i+1]), sorted ascending (so also by user ID).
+class FriendshipGraph {
+    private final int[] userIds;   // dense index -> user ID, ascending
+    private final int[] offsets;   // length n + 1
+    private final int[] neighbors; // dense indices, every edge stored in both directions
+    private long[][] hubBits;      // lazily built neighbor bitsets of hub vertices (see isHub)
+
+    private FriendshipGraph(int[] userIds, int[] offsets, int[] neighbors) {
+        this.userIds = userIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    // --- Builders ---
+
+    // Snapshot of the live User.friendsListHead lists, starting from the network's user list.
+    public static FriendshipGraph fromUsers(UserNode userListHead) {
+        int n = 0;
+        for (UserNode node = userListHead; node != null; node = node.next) n++;
+
+        int[] ids = new int[n];
+        int i = 0;
+        for (UserNode node = userListHead; node != null; node = node.next) {
+            ids[i++] = node.user.getUserId();
+        }
+        Arrays.sort(ids);
+
+        int[] offsets = new int[n + 1];
+        for (UserNode node = userListHead; node != null; node = node.next) {
+            int row = Arrays.binarySearch(ids, node.user.getUserId());
+            for (FriendNode f = node.user.getFriendsListHead(); f != null; f = f.next) {
+                offsets[row + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+
+        int[] neighbors = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (UserNode node = userListHead; node != null; node = node.next) {
+            int row = Arrays.binarySearch(ids, node.user.getUserId());
+            for (FriendNode f = node.user.getFriendsListHead(); f != null; f = f.next) {
+                int col = Arrays.binarySearch(ids, f.friend.getUserId());
+                if (col >= 0) neighbors[fill[row]++] = col;
+            }
+        }
+        return compact(ids, offsets, neighbors, fill);
+    }
+
+    // Builds the graph straight from a friendships.txt file ("userId,friendId,friendId,...",
+    // one header line). Every user ID mentioned becomes a vertex; edges are made symmetric.
+    public static FriendshipGraph fromFile(String filename) throws IOException {
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        int edges = 0;
+        int[] lineIds = new int[256]; // first ID of every line, so users without friends still get a vertex
+        int lines = 0;
+
+        try (CsvChannelReader reader = new CsvChannelReader(filename)) {
+            reader.nextLine(); // Skip header line
+            while (reader.nextLine()) {
+                if (reader.isBlank()) continue;
+
+                int userId;
+                try {
+                    userId = reader.intField(0);
+                } catch (NumberFormatException e) {
+                    System.err.println("Warning: Invalid User ID format in friendships file line: " + reader.line() + ". Skipping line.");
+                    continue;
+                }
+                if (lines == lineIds.length) lineIds = Arrays.copyOf(lineIds, lines * 2);
+                lineIds[lines++] = userId;
+
+                for (int p = 1; p < reader.fieldCount(); p++) {
+                    int friendId;
+                    try {
+                        friendId = reader.intField(p);
+                    } catch (NumberFormatException e) {
+                        System.err.println("Warning: Invalid friend ID format for user " + userId + " in line: " + reader.line() + ". Skipping friend ID.");
+                        continue;
+                    }
+                    if (friendId == userId) continue;
+                    if (edges + 2 > from.length) {
+                        from = Arrays.copyOf(from, from.length * 2);
+                        to = Arrays.copyOf(to, to.length * 2);
+                    }
+                    from[edges] = userId;   to[edges++] = friendId;
+                    from[edges] = friendId; to[edges++] = userId;
+                }
+            }
+        }
+
+        // Distinct user IDs become the vertex set
+        int[] ids = Arrays.copyOf(from, edges + lines); // 'from' already holds both endpoints of every edge
+        System.arraycopy(lineIds, 0, ids, edges, lines);
+        Arrays.sort(ids);
+        int n = 0;
+        for (int e = 0; e < ids.length; e++) {
+            if (n == 0 || ids[n - 1] != ids[e]) ids[n++] = ids[e];
+        }
+        ids = Arrays.copyOf(ids, n);
+
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < edges; e++) {
+            offsets[Arrays.binarySearch(ids, from[e]) + 1]++;
+        }
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+
+        int[] neighbors = new int[edges];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < edges; e++) {
+            int row = Arrays.binarySearch(ids, from[e]);
+            neighbors[fill[row]++] = Arrays.binarySearch(ids, to[e]);
+        }
+        return compact(ids, offsets, neighbors, fill);
+    }
+
+    // Sorts every row, drops duplicate edges and packs the rows back to back.
+    // 'fill[v]' is the end of the written part of row v.
+    private static FriendshipGraph compact(int[] ids, int[] offsets, int[] neighbors, int[] fill) {
+        int n = ids.length;
+        int[] packedOffsets = new int[n + 1];
+        int write = 0;
+        for (int v = 0; v < n; v++) {
+            int start = offsets[v];
+            int end = fill[v];
+            Arrays.sort(neighbors, start, end);
+            packedOffsets[v] = write;
+            for (int p = start; p < end; p++) {
+                if (p == start || neighbors[p] != neighbors[p - 1]) {
+                    neighbors[write++] = neighbors[p];
+                }
+            }
+        }
+        packedOffsets[n] = write;
+        int[] packed = (write == neighbors.length) ? neighbors : Arrays.copyOf(neighbors, write);
+        return new FriendshipGraph(ids, packedOffsets, packed);
+    }
+
+    // --- Read APIs (dense indices) ---
+
+    public int vertexCount() { return userIds.length; }
+
+    // Number of undirected friendships
+    public int edgeCount() { return neighbors.length / 2; }
+
+    // Dense index of a user ID, or -1 if the user is not in the graph.
+    public int indexOf(int userId) {
+        int i = Arrays.binarySearch(userIds, userId);
+        return (i >= 0) ? i : -1;
+    }
+
+    public int userIdAt(int index) { return userIds[index]; }
+
+    public int degree(int index) { return offsets[index + 1] - offsets[index]; }
+
+    // Row bounds into neighborAt(), for allocation-free traversal.
+    public int neighborStart(int index) { return offsets[index]; }
+    public int neighborEnd(int index) { return offsets[index + 1]; }
+    public int neighborAt(int position) { return neighbors[position]; }
+
+    public boolean hasEdge(int index1, int index2) {
+        return Arrays.binarySearch(neighbors, offsets[index1], offsets[index1 + 1], index2) >= 0;
+    }
+
+    // --- Mutual friends ---
+
+    // A hub's row is dense enough that a bitset (n/64 words) is no bigger than the row itself
+    // times a small factor; intersections against it are then one bit test per element.
+    private boolean isHub(int index) {
+        return degree(index) >= Math.max(64, vertexCount() >>> 5);
+    }
+
+    private synchronized long[] hubBitset(int index) {
+        if (hubBits == null) hubBits = new long[vertexCount()][];
+        long[] bits = hubBits[index];
+        if (bits == null) {
+            bits = SortedIntSets.toBitset(neighbors, offsets[index], offsets[index + 1], vertexCount());
+            hubBits[index] = bits;
+        }
+        return bits;
+    }
+
+    // Number of common neighbors of two vertices.
+    public int mutualCount(int index1, int index2) {
+        return mutual(index1, index2, null);
+    }
+
+    // Common neighbors of two vertices as dense indices, ascending.
+    public int[] mutualNeighbors(int index1, int index2) {
+        int[] out = new int[Math.min(degree(index1), degree(index2))];
+        int count = mutual(index1, index2, out);
+        return (count == out.length) ? out : Arrays.copyOf(out, count);
+    }
+
+    private int mutual(int a, int b, int[] out) {
+        boolean aHub = isHub(a), bHub = isHub(b);
+        if (aHub && bHub && out == null) {
+            return SortedIntSets.intersectionSize(hubBitset(a), hubBitset(b));
+        }
+        if (aHub || bHub) {
+            // Test the smaller row against the hub's bitset
+            int hub = (aHub && (!bHub || degree(a) >= degree(b))) ? a : b;
+            int other = (hub == a) ? b : a;
+            return SortedIntSets.intersect(hubBitset(hub), neighbors, offsets[other], offsets[other + 1], out);
+        }
+        return SortedIntSets.intersect(neighbors, offsets[a], offsets[a + 1], neighbors, offsets[b], offsets[b + 1], out);
+    }
+
+    // --- Read APIs (user IDs) ---
+
+    public int degreeOf(int userId) {
+        int i = indexOf(userId);
+        return (i >= 0) ? degree(i) : 0;
+    }
+
+    public boolean areFriends(int userId1, int userId2) {
+        int a = indexOf(userId1);
+        int b = indexOf(userId2);
+        return a >= 0 && b >= 0 && hasEdge(a, b);
+    }
+
+    public int mutualFriendCount(int userId1, int userId2) {
+        int a = indexOf(userId1);
+        int b = indexOf(userId2);
+        return (a >= 0 && b >= 0) ? mutualCount(a, b) : 0;
+    }
+
+    // User IDs of the common friends of two users, ascending.
+    public int[] mutualFriendIds(int userId1, int userId2) {
+        int a = indexOf(userId1);
+        int b = indexOf(userId2);
+        if (a < 0 || b < 0) return new int[0];
+        int[] result = mutualNeighbors(a, b);
+        for (int k = 0; k < result.length; k++) {
+            result[k] = userIds[result[k]];
+        }
+        return result;
+    }
+
+    // Friend user IDs in ascending order (empty if the user is not in the graph).
+    public int[] friendIdsOf(int userId) {
+        int i = indexOf(userId);
+        if (i < 0) return new int[0];
+        int[] result = new int[degree(i)];
+        for (int p = offsets[i], k = 0; p < offsets[i + 1]; p++, k++) {
+            result[k] = userIds[neighbors[p]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.demo;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// PageRank-style influence over friendships and shares.
+//
+// Vertices are the dense indices of a FriendshipGraph. Every friendship is an edge in both
+// directions; every share of a post adds one edge from the recipient to the post's creator, so
+// users whose posts reach many people collect rank from them. Rank is pulled along an in-edge CSR:
+//
+//   next[v] = (1 - d) / N + d * (sum over in-edges u->v of rank[u] / out[u] + dangling / N)
+//
+// where 'dangling' is the rank of users without out-edges, spread evenly. Each iteration is a
+// fork-join pass over index ranges writing into the second of two double[] buffers and summing
+// the L1 change; iteration stops once that change is below the tolerance.
+class InfluenceRank {
+    static final double DEFAULT_DAMPING = 0.85;
+    static final double DEFAULT_TOLERANCE = 1e-6;
+    static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    private static final int LEAF_VERTICES = 4096;
+
+    // Final scores (summing to 1) aligned with the graph's dense indices.
+    static final class Result {
+        private final FriendshipGraph graph;
+        private final double[] scores;
+        private final int iterations;
+        private final boolean converged;
+
+        Result(FriendshipGraph graph, double[] scores, int iterations, boolean converged) {
+            this.graph = graph;
+            this.scores = scores;
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+
+        public FriendshipGraph getGraph() { return graph; }
+        public int getIterations() { return iterations; }
+        public boolean isConverged() { return converged; }
+
+        public double scoreOf(int userId) {
+            int index = graph.indexOf(userId);
+            return (index >= 0) ? scores[index] : 0.0;
+        }
+
+        public double scoreAt(int index) { return scores[index]; }
+
+        // Dense indices of the n highest scores, best first (ties by lower user ID).
+        public int[] top(int n) {
+            int k = Math.max(0, Math.min(n, scores.length));
+            int[] heap = new int[k]; // min-heap: weakest of the best k at the root
+            int size = 0;
+            for (int v = 0; v < scores.length && k > 0; v++) {
+                if (size < k) {
+                    heap[size] = v;
+                    for (int i = size++; i > 0 && better(heap[(i - 1) / 2], heap[i]); i = (i - 1) / 2) {
+                        swap(heap, i, (i - 1) / 2);
+                    }
+                } else if (better(v, heap[0])) {
+                    heap[0] = v;
+                    siftDown(heap, size, 0);
+                }
+            }
+            int[] result = new int[size];
+            for (int r = size - 1; r >= 0; r--) {
+                result[r] = heap[0];
+                heap[0] = heap[r];
+                siftDown(heap, r, 0);
+            }
+            return result;
+        }
+
+        private boolean better(int a, int b) {
+            return scores[a] != scores[b] ? scores[a] > scores[b] : a < b;
+        }
+
+        private void siftDown(int[] heap, int size, int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) return;
+                int worst = (left + 1 < size && better(heap[left], heap[left + 1])) ? left + 1 : left;
+                if (!better(heap[i], heap[worst])) return;
+                swap(heap, i, worst);
+                i = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    private final FriendshipGraph graph;
+    private final int[] inOffsets;  // in-edge CSR: sources of v are inSources[inOffsets[v] .. inOffsets[v+1])
+    private final int[] inSources;
+    private final int[] outDegree;
+
+    // Combines the friendship graph with the share edges of every user's own posts. The post lists
+    // are walked once; share edges are buffered as (recipient, creator) pairs and then bucketed.
+    InfluenceRank(FriendshipGraph graph, UserNode userListHead) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        outDegree = new int[n];
+        int[] inDegree = new int[n];
+        for (int v = 0; v < n; v++) {
+            outDegree[v] = graph.degree(v);
+            inDegree[v] = graph.degree(v);
+        }
+
+        int[] shareEdges = new int[64]; // recipient, creator, recipient, creator, ...
+        int shareCount = 0;
+        for (UserNode node = userListHead; node != null; node = node.next) {
+            int creator = graph.indexOf(node.user.getUserId());
+            if (creator < 0) continue;
+            for (PostNode post = node.user.getPostsCreatedHead(); post != null; post = post.next) {
+                for (SharedUserNode shared = post.post.getSharedWithListHead(); shared != null; shared = shared.next) {
+                    int recipient = graph.indexOf(shared.sharedUser.getUserId());
+                    if (recipient < 0) continue;
+                    if (2 * shareCount == shareEdges.length) {
+                        shareEdges = Arrays.copyOf(shareEdges, shareEdges.length * 2);
+                    }
+                    shareEdges[2 * shareCount] = recipient;
+                    shareEdges[2 * shareCount + 1] = creator;
+                    shareCount++;
+                    outDegree[recipient]++;
+                    inDegree[creator]++;
+                }
+            }
+        }
+
+        inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) inOffsets[v + 1] = inOffsets[v] + inDegree[v];
+        inSources = new int[inOffsets[n]];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+
+        // Friendships: the neighbors of v are exactly its in-sources
+        for (int v = 0; v < n; v++) {
+            for (int p = graph.neighborStart(v); p < graph.neighborEnd(v); p++) {
+                inSources[fill[v]++] = graph.neighborAt(p);
+            }
+        }
+        for (int e = 0; e < shareCount; e++) {
+            inSources[fill[shareEdges[2 * e + 1]]++] = shareEdges[2 * e];
+        }
+    }
+
+    public Result compute(double damping, double tolerance, int maxIterations, ForkJoinPool pool) {
+        if (damping < 0 || damping >= 1) throw new IllegalArgumentException("Damping must be in [0, 1): " + damping);
+        int n = graph.vertexCount();
+        if (n == 0) return new Result(graph, new double[0], 0, true);
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        int iteration = 0;
+        boolean converged = false;
+        while (iteration < maxIterations && !converged) {
+            double dangling = 0;
+            for (int v = 0; v < n; v++) {
+                if (outDegree[v] == 0) dangling += rank[v];
+            }
+            double base = (1 - damping) / n + damping * dangling / n;
+            double delta = pool.invoke(new IterationTask(0, n, rank, next, damping, base));
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            iteration++;
+            converged = delta < tolerance;
+        }
+        return new Result(graph, rank, iteration, converged);
+    }
+
+    // Computes next[from, to) from rank and returns the L1 change over the range.
+    private final class IterationTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final double[] rank, next;
+        private final double damping, base;
+
+        IterationTask(int from, int to, double[] rank, double[] next, double damping, double base) {
+            this.from = from;
+            this.to = to;
+            this.rank = rank;
+            this.next = next;
+            this.damping = damping;
+            this.base = base;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= LEAF_VERTICES) {
+                double delta = 0;
+                for (int v = from; v < to; v++) {
+                    double sum = 0;
+                    for (int p = inOffsets[v], end = inOffsets[v + 1]; p < end; p++) {
+                        int u = inSources[p];
+                        sum += rank[u] / outDegree[u];
+                    }
+                    double value = base + damping * sum;
+                    delta += Math.abs(value - rank[v]);
+                    next[v] = value;
+                }
+                return delta;
+            }
+            int mid = (from + to) >>> 1;
+            IterationTask left = new IterationTask(from, mid, rank, next, damping, base);
+            left.fork();
+            double right = new IterationTask(mid, to, rank, next, damping, base).compute();
+            return left.join() + right;
+        }
+    }
+}
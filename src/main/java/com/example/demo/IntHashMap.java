@@ -0,0 +1,126 @@
+package com.example.demo;
+
+// Open-addressing hash map keyed by primitive ints (linear probing, no boxing).
+// Removal uses backward-shift deletion so no tombstones build up.
+class IntHashMap<V> {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values; // null slot == empty
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntHashMap() {
+        this(16);
+    }
+
+    public IntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() { return size; }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    // Returns the previous value, or null if the key was not present.
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) throw new IllegalArgumentException("IntHashMap does not store null values");
+
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V old = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    // Close the gap at 'hole' by pulling back any entry whose probe sequence passes through it.
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) break;
+            int home = mix(keys[slot]) & mask;
+            // Move the entry only if its home slot is not cyclically within (hole, slot]
+            boolean movable = (hole <= slot) ? (home <= hole || home > slot) : (home <= hole && home > slot);
+            if (movable) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.demo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead log of network mutations, replayed on top of the base data files.
+//
+// File: int magic "SNWL", int version, then records.
+// Record: int bodyLength, int CRC32(body), body = byte op + op-specific fields
+// (ints big-endian, strings as int length + UTF-8). A record that is cut short, fails its
+// checksum or does not decode as its op marks the end of the log; replay stops there and the
+// tail is truncated. A log with another magic or version is refused rather than truncated.
+//
+// Appends only encode into an in-memory buffer. The buffer is written and fsync'ed as one
+// group commit once 'groupCommitRecords' records are pending, or at the latest every
+// 'groupCommitMillis' by a background flusher, so a mutation costs a buffered append.
+class MutationLog implements Closeable {
+    static final byte ADD_USER = 1;
+    static final byte UPDATE_USER = 2;
+    static final byte DELETE_USER = 3;
+    static final byte ADD_FRIENDSHIP = 4;
+    static final byte REMOVE_FRIENDSHIP = 5;
+    static final byte CREATE_POST = 6;
+    static final byte DELETE_POST = 7;
+
+    static final int MAGIC = 0x534E574C; // "SNWL"
+    static final int VERSION = 1;
+    static final int FILE_HEADER = 8;
+
+    private static final int RECORD_HEADER = 8;
+    private static final int MAX_BODY_SIZE = 1 << 24;
+
+    private final String filename;
+    private final FileChannel channel;
+    private final int groupCommitRecords;
+    private final ScheduledExecutorService flusher;
+    private final CRC32 crc = new CRC32();
+
+    private ByteBuffer record = ByteBuffer.allocate(256);           // record being encoded
+    private final ByteBuffer pending = ByteBuffer.allocate(1 << 18); // encoded, not yet written
+    private int pendingRecords;
+    private boolean unsynced;
+
+    // Opens the log for appending after its first 'validLength' bytes (see replay); a log
+    // without a complete file header is started afresh.
+    MutationLog(String filename, long validLength, int groupCommitRecords, long groupCommitMillis) throws IOException {
+        this.filename = filename;
+        this.groupCommitRecords = groupCommitRecords;
+        this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength < FILE_HEADER) {
+            channel.truncate(0);
+            writeFully(ByteBuffer.allocate(FILE_HEADER).putInt(MAGIC).putInt(VERSION).flip());
+            channel.force(false);
+        } else {
+            channel.truncate(validLength); // drop a torn tail left by a crash
+            channel.position(validLength);
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mutation-log-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::syncQuietly, groupCommitMillis, groupCommitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // --- Appends ---
+
+    public synchronized void logAddUser(int userId, String name, int age) {
+        begin(ADD_USER);
+        putInt(userId);
+        putInt(age);
+        putString(name);
+        end();
+    }
+
+    public synchronized void logUpdateUser(int userId, String name, int age) {
+        begin(UPDATE_USER);
+        putInt(userId);
+        putInt(age);
+        putString(name);
+        end();
+    }
+
+    public synchronized void logDeleteUser(int userId) {
+        begin(DELETE_USER);
+        putInt(userId);
+        end();
+    }
+
+    public synchronized void logAddFriendship(int userId1, int userId2) {
+        begin(ADD_FRIENDSHIP);
+        putInt(userId1);
+        putInt(userId2);
+        end();
+    }
+
+    public synchronized void logRemoveFriendship(int userId1, int userId2) {
+        begin(REMOVE_FRIENDSHIP);
+        putInt(userId1);
+        putInt(userId2);
+        end();
+    }
+
+    public synchronized void logCreatePost(int postId, int creatorId, String content, String creationDate, int[] sharedWithIds) {
+        begin(CREATE_POST);
+        putInt(postId);
+        putInt(creatorId);
+        putString(content);
+        putString(creationDate);
+        int shares = (sharedWithIds != null) ? sharedWithIds.length : 0;
+        putInt(shares);
+        for (int i = 0; i < shares; i++) putInt(sharedWithIds[i]);
+        end();
+    }
+
+    public synchronized void logDeletePost(int postId, int requestingUserId) {
+        begin(DELETE_POST);
+        putInt(postId);
+        putInt(requestingUserId);
+        end();
+    }
+
+    // --- Encoding ---
+
+    private void begin(byte op) {
+        record.clear();
+        record.position(RECORD_HEADER);
+        record.put(op);
+    }
+
+    private void ensure(int bytes) {
+        if (record.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes));
+            record.flip();
+            grown.put(record);
+            record = grown;
+        }
+    }
+
+    private void putInt(int value) {
+        ensure(4);
+        record.putInt(value);
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        record.putInt(bytes.length);
+        record.put(bytes);
+    }
+
+    private void end() {
+        int bodyLength = record.position() - RECORD_HEADER;
+        crc.reset();
+        crc.update(record.array(), RECORD_HEADER, bodyLength);
+        record.putInt(0, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        try {
+            if (pending.remaining() < record.remaining()) {
+                writePending();
+            }
+            if (pending.remaining() < record.remaining()) {
+                writeFully(record); // larger than the whole group buffer: write it on its own
+            } else {
+                pending.put(record);
+            }
+            unsynced = true;
+            if (++pendingRecords >= groupCommitRecords) {
+                sync();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing mutation log " + filename + ": " + e.getMessage());
+        }
+    }
+
+    private void writePending() throws IOException {
+        pending.flip();
+        writeFully(pending);
+        pending.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // --- Durability ---
+
+    // Group commit: writes all pending records and fsyncs the log once.
+    public synchronized void sync() throws IOException {
+        if (!unsynced) return;
+        writePending();
+        channel.force(false);
+        pendingRecords = 0;
+        unsynced = false;
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Error syncing mutation log " + filename + ": " + e.getMessage());
+        }
+    }
+
+    // Bytes in the log, including records not yet written.
+    public synchronized long size() throws IOException {
+        return channel.size() + pending.position();
+    }
+
+    // Empties the log, down to its file header, once its effects are part of the base data files.
+    public synchronized void truncate() throws IOException {
+        pending.clear();
+        pendingRecords = 0;
+        unsynced = false;
+        channel.truncate(FILE_HEADER);
+        channel.position(FILE_HEADER);
+        channel.force(true);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flusher.shutdownNow();
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // --- Replay ---
+
+    // Applies every intact record of the log to the network and returns the length of the
+    // valid prefix. A missing file, or one cut short inside the file header, is an empty log.
+    public static long replay(String filename, SocialNetwork network) throws IOException {
+        Path path = Paths.get(filename);
+        if (!Files.exists(path)) return 0;
+
+        long valid = 0;
+        int applied = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = in.size();
+            ByteBuffer header = ByteBuffer.allocate(Math.max(FILE_HEADER, RECORD_HEADER));
+            ByteBuffer body = ByteBuffer.allocate(256);
+            CRC32 check = new CRC32();
+
+            if (size >= FILE_HEADER) {
+                header.clear().limit(FILE_HEADER);
+                readFully(in, header, 0);
+                if (header.getInt(0) != MAGIC) throw new IOException(filename + " is not a mutation log.");
+                if (header.getInt(4) != VERSION) throw new IOException("Unsupported mutation log version " + header.getInt(4) + " in " + filename + ".");
+                valid = FILE_HEADER;
+            }
+
+            while (valid + RECORD_HEADER <= size) {
+                header.clear().limit(RECORD_HEADER);
+                readFully(in, header, valid);
+                int bodyLength = header.getInt(0);
+                int expectedCrc = header.getInt(4);
+                if (bodyLength <= 0 || bodyLength > MAX_BODY_SIZE || valid + RECORD_HEADER + bodyLength > size) break;
+
+                if (body.capacity() < bodyLength) body = ByteBuffer.allocate(Math.max(bodyLength, body.capacity() * 2));
+                body.clear().limit(bodyLength);
+                readFully(in, body, valid + RECORD_HEADER);
+                check.reset();
+                check.update(body.array(), 0, bodyLength);
+                if ((int) check.getValue() != expectedCrc) break;
+
+                body.flip();
+                if (!apply(body, network)) break;
+                applied++;
+                valid += RECORD_HEADER + bodyLength;
+            }
+            if (valid < size) {
+                System.err.println("Warning: Ignoring " + (size - valid) + " bytes of incomplete or corrupt records at the end of " + filename + ".");
+            }
+        }
+        System.out.println("Replayed " + applied + " mutations from " + filename);
+        return valid;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of mutation log.");
+            position += read;
+        }
+    }
+
+    // --- Decoding ---
+
+    // Thrown by the readers below when a record body does not match the layout of its op.
+    private static final class MalformedRecordException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+
+    private static int getInt(ByteBuffer body) throws MalformedRecordException {
+        if (body.remaining() < 4) throw new MalformedRecordException("record ends early");
+        return body.getInt();
+    }
+
+    private static String getString(ByteBuffer body) throws MalformedRecordException {
+        int length = getInt(body);
+        if (length < 0 || length > body.remaining()) throw new MalformedRecordException("bad string length " + length);
+        String value = new String(body.array(), body.position(), length, StandardCharsets.UTF_8);
+        body.position(body.position() + length);
+        return value;
+    }
+
+    // Decodes one record body and applies it. Every field is read before the network is touched,
+    // so a malformed record changes nothing and returns false.
+    private static boolean apply(ByteBuffer body, SocialNetwork network) {
+        try {
+            byte op = body.get();
+            switch (op) {
+                case ADD_USER: {
+                    int userId = getInt(body);
+                    int age = getInt(body);
+                    String name = getString(body);
+                    checkConsumed(body);
+                    network.addUser(userId, name, age);
+                    break;
+                }
+                case UPDATE_USER: {
+                    int userId = getInt(body);
+                    int age = getInt(body);
+                    String name = getString(body);
+                    checkConsumed(body);
+                    network.updateUser(userId, name, age);
+                    break;
+                }
+                case DELETE_USER: {
+                    int userId = getInt(body);
+                    checkConsumed(body);
+                    network.deleteUser(userId);
+                    break;
+                }
+                case ADD_FRIENDSHIP:
+                case REMOVE_FRIENDSHIP: {
+                    int userId1 = getInt(body);
+                    int userId2 = getInt(body);
+                    checkConsumed(body);
+                    if (op == ADD_FRIENDSHIP) network.addFriendship(userId1, userId2);
+                    else network.removeFriendship(userId1, userId2);
+                    break;
+                }
+                case CREATE_POST: {
+                    int postId = getInt(body);
+                    int creatorId = getInt(body);
+                    String content = getString(body);
+                    String date = getString(body);
+                    int shares = getInt(body);
+                    if (shares < 0 || shares > body.remaining() / 4) throw new MalformedRecordException("bad share count " + shares);
+                    int[] sharedWithIds = new int[shares];
+                    for (int i = 0; i < shares; i++) sharedWithIds[i] = body.getInt();
+                    checkConsumed(body);
+                    network.createPostWithId(postId, creatorId, content, date, sharedWithIds);
+                    break;
+                }
+                case DELETE_POST: {
+                    int postId = getInt(body);
+                    int requestingUserId = getInt(body);
+                    checkConsumed(body);
+                    network.deletePost(postId, requestingUserId);
+                    break;
+                }
+                default:
+                    throw new MalformedRecordException("unknown operation " + op);
+            }
+            return true;
+        } catch (MalformedRecordException e) {
+            System.err.println("Warning: Malformed mutation log record (" + e.getMessage() + "). Treating it as the end of the log.");
+            return false;
+        }
+    }
+
+    private static void checkConsumed(ByteBuffer body) throws MalformedRecordException {
+        if (body.hasRemaining()) throw new MalformedRecordException(body.remaining() + " unexpected trailing bytes");
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo;
+
+// Case-folded trie over user names. Answers exact lookups in O(name length)
+// and prefix (autocomplete) queries in O(prefix length + results).
+class NameIndex {
+    private static final char[] NO_LABELS = new char[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+    private static final User[] NO_USERS = new User[0];
+
+    private static final class TrieNode {
+        char[] labels = NO_LABELS;      // sorted child edge labels
+        TrieNode[] children = NO_CHILDREN;
+        int childCount;
+        User[] users = NO_USERS;        // users whose folded name ends here, oldest first
+        int userCount;
+
+        TrieNode child(char c) {
+            int i = indexOf(c);
+            return (i >= 0) ? children[i] : null;
+        }
+
+        int indexOf(char c) {
+            int lo = 0, hi = childCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (labels[mid] < c) lo = mid + 1;
+                else if (labels[mid] > c) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        TrieNode childOrCreate(char c) {
+            int i = indexOf(c);
+            if (i >= 0) return children[i];
+
+            int at = -(i + 1);
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                char[] newLabels = new char[capacity];
+                TrieNode[] newChildren = new TrieNode[capacity];
+                System.arraycopy(labels, 0, newLabels, 0, childCount);
+                System.arraycopy(children, 0, newChildren, 0, childCount);
+                labels = newLabels;
+                children = newChildren;
+            }
+            System.arraycopy(labels, at, labels, at + 1, childCount - at);
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            TrieNode node = new TrieNode();
+            labels[at] = c;
+            children[at] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChildAt(int i) {
+            System.arraycopy(labels, i + 1, labels, i, childCount - i - 1);
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        boolean isEmpty() {
+            return childCount == 0 && userCount == 0;
+        }
+    }
+
+    private final TrieNode root = new TrieNode();
+    private int size;
+
+    public int size() { return size; }
+
+    // Same folding as String.equalsIgnoreCase, so lookups match the old linear search.
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    public void add(User user) {
+        String name = user.getName();
+        TrieNode node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.childOrCreate(fold(name.charAt(i)));
+        }
+        if (node.userCount == node.users.length) {
+            User[] grown = new User[Math.max(1, node.userCount * 2)];
+            System.arraycopy(node.users, 0, grown, 0, node.userCount);
+            node.users = grown;
+        }
+        node.users[node.userCount++] = user;
+        size++;
+    }
+
+    // 'name' is the name the user was indexed under (callers pass the old name on rename).
+    public boolean remove(User user, String name) {
+        if (removeFrom(root, user, name, 0)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean removeFrom(TrieNode node, User user, String name, int depth) {
+        if (depth == name.length()) {
+            for (int i = 0; i < node.userCount; i++) {
+                if (node.users[i] == user) {
+                    System.arraycopy(node.users, i + 1, node.users, i, node.userCount - i - 1);
+                    node.users[--node.userCount] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int i = node.indexOf(fold(name.charAt(depth)));
+        if (i < 0) return false;
+        TrieNode child = node.children[i];
+        boolean removed = removeFrom(child, user, name, depth + 1);
+        if (removed && child.isEmpty()) {
+            node.removeChildAt(i); // prune so the trie stays compact
+        }
+        return removed;
+    }
+
+    private TrieNode find(String key) {
+        TrieNode node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(fold(key.charAt(i)));
+        }
+        return node;
+    }
+
+    // Returns the most recently added user with this name (case-insensitive), or null.
+    public User findExact(String name) {
+        if (name == null) return null;
+        TrieNode node = find(name);
+        return (node != null && node.userCount > 0) ? node.users[node.userCount - 1] : null;
+    }
+
+    // Returns up to 'limit' users whose name starts with 'prefix', in alphabetical order.
+    public User[] findByPrefix(String prefix, int limit) {
+        if (prefix == null || limit <= 0) return NO_USERS;
+        TrieNode node = find(prefix);
+        if (node == null) return NO_USERS;
+
+        User[] buffer = new User[Math.min(limit, size)];
+        int count = collect(node, buffer, 0);
+        if (count == buffer.length) return buffer;
+        User[] result = new User[count];
+        System.arraycopy(buffer, 0, result, 0, count);
+        return result;
+    }
+
+    private int collect(TrieNode node, User[] out, int count) {
+        for (int i = node.userCount - 1; i >= 0 && count < out.length; i--) {
+            out[count++] = node.users[i];
+        }
+        for (int i = 0; i < node.childCount && count < out.length; i++) {
+            count = collect(node.children[i], out, count);
+        }
+        return count;
+    }
+}
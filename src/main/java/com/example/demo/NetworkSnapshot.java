@@ -0,0 +1,178 @@
+package com.example.demo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Binary snapshot file format used by SocialNetwork.saveSnapshot / loadSnapshot.
+//
+//   header  : int magic "SNMS", int version, long payload length, long CRC32 of the payload
+//   payload : big-endian ints/longs and length-prefixed UTF-8 strings, laid out by SocialNetwork
+//
+// The payload is read back through a read-only memory mapping, so restoring does no
+// per-line parsing and the checksum is verified over the mapped bytes in one pass.
+class NetworkSnapshot {
+    static final int MAGIC = 0x534E4D53; // "SNMS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    static final long NO_DATE = Long.MIN_VALUE; // epoch day stored for posts without a parsed date
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Streams the payload through one buffer into 'filename.tmp', checksumming each block as it is
+    // flushed. commit() writes the header and moves the file into place; closing without a commit
+    // deletes the temporary file, so a failed save leaves the previous snapshot untouched.
+    static final class Writer implements Closeable {
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+        private long payloadLength;
+        private boolean committed;
+
+        Writer(String filename) throws IOException {
+            target = Paths.get(filename);
+            temp = Paths.get(filename + ".tmp");
+            channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE); // header is written last, once the checksum is known
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            payloadLength += buffer.remaining();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        // Completes the file: stamps the header over the full payload, syncs, and atomically replaces the target.
+        void commit() throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(payloadLength).putLong(crc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_SIZE - header.remaining());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Maps a snapshot file and validates its header and checksum before any payload is read.
+    static final class Reader {
+        private final MappedByteBuffer payload;
+        private byte[] scratch = new byte[256];
+
+        Reader(String filename) throws IOException {
+            try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE) throw new IOException("File is too short to be a snapshot.");
+                if (size - HEADER_SIZE > Integer.MAX_VALUE) throw new IOException("Snapshot is too large to map (" + size + " bytes).");
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining()) {
+                    if (channel.read(header, header.position()) < 0) throw new IOException("Truncated snapshot header.");
+                }
+                header.flip();
+                if (header.getInt() != MAGIC) throw new IOException("Not a social network snapshot.");
+                int version = header.getInt();
+                if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + " (expected " + VERSION + ").");
+                long length = header.getLong();
+                long expectedCrc = header.getLong();
+                if (length != size - HEADER_SIZE) throw new IOException("Snapshot length mismatch: header says " + length + " bytes, file has " + (size - HEADER_SIZE) + ".");
+
+                payload = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length);
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+                if (crc.getValue() != expectedCrc) throw new IOException("Snapshot checksum mismatch; the file is corrupt.");
+            }
+        }
+
+        int readInt() throws IOException {
+            need(4);
+            return payload.getInt();
+        }
+
+        long readLong() throws IOException {
+            need(8);
+            return payload.getLong();
+        }
+
+        String readString() throws IOException {
+            int length = readInt();
+            need(length);
+            if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            payload.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Moves past a string without decoding it.
+        void skipString() throws IOException {
+            int length = readInt();
+            need(length);
+            payload.position(payload.position() + length);
+        }
+
+        boolean hasRemaining() { return payload.hasRemaining(); }
+
+        // Back to the start of the payload, e.g. after a validating pass.
+        void rewind() { payload.rewind(); }
+
+        private void need(long bytes) throws IOException {
+            if (bytes < 0 || bytes > payload.remaining()) throw new IOException("Snapshot payload ends early.");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Latest posts of a user's friends, newest first.
+//
+// Every friend's PostTimeline is already sorted by (date, post ID), so the feed is a k-way merge:
+// one cursor per friend starts at that friend's newest post, and a max-heap of cursors yields the
+// next newest post. Building the heap is O(F) and each of the K posts costs O(log F), so the
+// work depends on the friend count and K, never on the total number of posts.
+class NewsFeed {
+    private NewsFeed() {}
+
+    public static List<Post> latest(User user, int k) {
+        List<Post> feed = new ArrayList<>(Math.max(0, Math.min(k, 256)));
+        if (k <= 0) return feed;
+
+        // Cursor i reads timelines[i] at position[i], moving towards older posts
+        int friends = user.getFriendCount();
+        PostTimeline[] timelines = new PostTimeline[friends];
+        int[] position = new int[friends];
+        int[] heap = new int[friends];
+        int heapSize = 0;
+        for (FriendNode node = user.getFriendsListHead(); node != null; node = node.next) {
+            PostTimeline timeline = node.friend.getTimeline();
+            if (timeline.size() == 0) continue;
+            timelines[heapSize] = timeline;
+            position[heapSize] = timeline.size() - 1;
+            heap[heapSize] = heapSize;
+            heapSize++;
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, timelines, position);
+        }
+
+        while (heapSize > 0 && feed.size() < k) {
+            int cursor = heap[0];
+            feed.add(timelines[cursor].get(position[cursor]));
+            if (--position[cursor] < 0) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, 0, timelines, position);
+        }
+        return feed;
+    }
+
+    private static long head(int cursor, PostTimeline[] timelines, int[] position) {
+        return timelines[cursor].keyAt(position[cursor]);
+    }
+
+    private static void siftDown(int[] heap, int size, int i, PostTimeline[] timelines, int[] position) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int newest = (left + 1 < size && head(heap[left + 1], timelines, position) > head(heap[left], timelines, position))
+                    ? left + 1 : left;
+            if (head(heap[newest], timelines, position) <= head(heap[i], timelines, position)) return;
+            int tmp = heap[i];
+            heap[i] = heap[newest];
+            heap[newest] = tmp;
+            i = newest;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.demo;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Parses a posts.txt file in parallel: the file is split at line boundaries into chunks,
+// and every chunk is parsed on a fork-join pool into primitive buffers (dates included).
+// Nothing here touches users; SocialNetwork.loadPostsParallel links the chunks in file order.
+class ParallelPostParser {
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    // Record kinds, in file order
+    static final byte POST = 0;
+    static final byte BAD_FORMAT = 1;  // fewer than 4 fields
+    static final byte BAD_ID = 2;      // post or creator ID is not a number
+
+    // Parsed records of one chunk. Shares of record r are shareIds[shareEnd[r-1] .. shareEnd[r]).
+    static final class PostChunk {
+        int count;
+        byte[] kinds = new byte[256];
+        int[] postIds = new int[256];
+        int[] creatorIds = new int[256];
+        String[] contents = new String[256];
+        String[] dates = new String[256];
+        LocalDate[] parsedDates = new LocalDate[256];
+        String[] lines = new String[256];     // only kept for lines that need a warning
+        int[] shareEnd = new int[256];
+        int[] shareIds = new int[1024];
+        boolean[] shareValid = new boolean[1024];
+        int shareCount;
+
+        int shareStart(int record) {
+            return (record == 0) ? 0 : shareEnd[record - 1];
+        }
+
+        private int newRecord(byte kind) {
+            if (count == kinds.length) {
+                int capacity = count * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                postIds = Arrays.copyOf(postIds, capacity);
+                creatorIds = Arrays.copyOf(creatorIds, capacity);
+                contents = Arrays.copyOf(contents, capacity);
+                dates = Arrays.copyOf(dates, capacity);
+                parsedDates = Arrays.copyOf(parsedDates, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                shareEnd = Arrays.copyOf(shareEnd, capacity);
+            }
+            kinds[count] = kind;
+            shareEnd[count] = shareCount;
+            return count++;
+        }
+
+        private void addShare(int record, int userId, boolean valid) {
+            if (shareCount == shareIds.length) {
+                shareIds = Arrays.copyOf(shareIds, shareCount * 2);
+                shareValid = Arrays.copyOf(shareValid, shareCount * 2);
+            }
+            shareIds[shareCount] = userId;
+            shareValid[shareCount] = valid;
+            shareCount++;
+            shareEnd[record] = shareCount;
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start, end;
+        final PostChunk chunk = new PostChunk();
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            try (CsvChannelReader reader = new CsvChannelReader(channel, start, end)) {
+                while (reader.nextLine()) {
+                    if (reader.isBlank()) continue;
+                    parseLine(reader, chunk);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void parseLine(CsvChannelReader reader, PostChunk chunk) {
+        if (reader.fieldCount() < 4) {
+            chunk.lines[chunk.newRecord(BAD_FORMAT)] = reader.line();
+            return;
+        }
+        int postId, creatorId;
+        try {
+            postId = reader.intField(0);
+            creatorId = reader.intField(1);
+        } catch (NumberFormatException e) {
+            chunk.lines[chunk.newRecord(BAD_ID)] = reader.line();
+            return;
+        }
+
+        int r = chunk.newRecord(POST);
+        chunk.postIds[r] = postId;
+        chunk.creatorIds[r] = creatorId;
+        chunk.contents[r] = reader.stringField(2);
+        chunk.dates[r] = reader.stringField(3);
+        chunk.parsedDates[r] = Post.parseDate(chunk.dates[r]);
+        for (int i = 4; i < reader.fieldCount(); i++) {
+            try {
+                chunk.addShare(r, reader.intField(i), true);
+            } catch (NumberFormatException e) {
+                chunk.addShare(r, 0, false);
+                if (chunk.lines[r] == null) chunk.lines[r] = reader.line();
+            }
+        }
+    }
+
+    // Parses everything after the header line and returns the chunks in file order.
+    public static PostChunk[] parse(String filename, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = new FileInputStream(filename).getChannel()) {
+            long size = channel.size();
+            long dataStart = nextLineStart(channel, 0, size); // Skip header line
+
+            int parallelism = pool.getParallelism();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE, (size - dataStart) / (parallelism * 4L) + 1);
+            int maxChunks = (int) ((size - dataStart) / chunkSize + 1);
+
+            ChunkTask[] tasks = new ChunkTask[maxChunks];
+            int taskCount = 0;
+            long start = dataStart;
+            while (start < size) {
+                long end = (start + chunkSize >= size) ? size : nextLineStart(channel, start + chunkSize, size);
+                tasks[taskCount++] = new ChunkTask(channel, start, end);
+                start = end;
+            }
+            ChunkTask[] submitted = Arrays.copyOf(tasks, taskCount);
+
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(submitted);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            PostChunk[] chunks = new PostChunk[taskCount];
+            for (int i = 0; i < taskCount; i++) {
+                chunks[i] = submitted[i].chunk;
+            }
+            return chunks;
+        }
+    }
+
+    // Offset just past the first '\n' at or after 'from' (or 'size' if there is none).
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+}
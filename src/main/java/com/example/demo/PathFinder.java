@@ -0,0 +1,139 @@
+package com.example.demo;
+
+import java.util.Arrays;
+
+// Shortest friendship paths over a FriendshipGraph by bidirectional BFS.
+//
+// Both searches keep their frontier in a primitive int queue; a vertex counts as visited by a side
+// when its stamp equals the current query's epoch, so nothing is cleared between queries and a
+// distance query allocates nothing. Each round expands one whole level of the smaller frontier;
+// once the sides meet, the rest of that level is still scanned so the shortest meeting is kept.
+// One instance is reused across queries and is not thread-safe.
+class PathFinder {
+    private final FriendshipGraph graph;
+    private final int[] stampForward, stampBackward; // epoch in which each side reached the vertex
+    private final int[] distForward, distBackward;
+    private final int[] parentForward, parentBackward;
+    private final int[] queueForward, queueBackward;
+    private int epoch;
+
+    // Result of the last search
+    private int meeting = -1;
+    private int bestDistance = -1;
+
+    PathFinder(FriendshipGraph graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        stampForward = new int[n];
+        stampBackward = new int[n];
+        distForward = new int[n];
+        distBackward = new int[n];
+        parentForward = new int[n];
+        parentBackward = new int[n];
+        queueForward = new int[n];
+        queueBackward = new int[n];
+    }
+
+    FriendshipGraph graph() { return graph; }
+
+    // Hops between two users, or -1 if they are not connected within maxDepth hops
+    // (or either user is unknown).
+    public int distance(int userId1, int userId2, int maxDepth) {
+        return search(graph.indexOf(userId1), graph.indexOf(userId2), maxDepth) ? bestDistance : -1;
+    }
+
+    // One shortest path as user IDs from userId1 to userId2 (both included), or an empty array.
+    public int[] path(int userId1, int userId2, int maxDepth) {
+        if (!search(graph.indexOf(userId1), graph.indexOf(userId2), maxDepth)) return new int[0];
+
+        int[] path = new int[bestDistance + 1];
+        int k = distForward[meeting];
+        for (int v = meeting, i = k; i >= 0; i--) {
+            path[i] = graph.userIdAt(v);
+            v = parentForward[v];
+        }
+        for (int v = parentBackward[meeting], i = k + 1; i <= bestDistance; i++) {
+            path[i] = graph.userIdAt(v);
+            v = parentBackward[v];
+        }
+        return path;
+    }
+
+    private boolean search(int source, int target, int maxDepth) {
+        meeting = -1;
+        bestDistance = -1;
+        if (source < 0 || target < 0 || maxDepth < 0) return false;
+        nextEpoch();
+        if (source == target) {
+            stampForward[source] = epoch;
+            distForward[source] = 0;
+            meeting = source;
+            bestDistance = 0;
+            return true;
+        }
+
+        stampForward[source] = epoch;
+        distForward[source] = 0;
+        parentForward[source] = -1;
+        queueForward[0] = source;
+        int headF = 0, tailF = 1, depthF = 0;
+
+        stampBackward[target] = epoch;
+        distBackward[target] = 0;
+        parentBackward[target] = -1;
+        queueBackward[0] = target;
+        int headB = 0, tailB = 1, depthB = 0;
+
+        // Stop once the sides meet or together cover maxDepth hops without meeting
+        while (headF < tailF && headB < tailB && depthF + depthB < maxDepth) {
+            if (tailF - headF <= tailB - headB) {
+                int levelEnd = tailF;
+                tailF = expandLevel(headF, levelEnd, queueForward, stampForward, distForward, parentForward,
+                        stampBackward, distBackward);
+                headF = levelEnd;
+                depthF++;
+            } else {
+                int levelEnd = tailB;
+                tailB = expandLevel(headB, levelEnd, queueBackward, stampBackward, distBackward, parentBackward,
+                        stampForward, distForward);
+                headB = levelEnd;
+                depthB++;
+            }
+            if (bestDistance >= 0) break;
+        }
+        return bestDistance >= 0 && bestDistance <= maxDepth;
+    }
+
+    // Expands the level queue[head, tail) and returns the new tail. Records the best meeting.
+    private int expandLevel(int head, int tail, int[] queue, int[] stamp, int[] dist, int[] parent,
+                            int[] otherStamp, int[] otherDist) {
+        int end = tail;
+        for (int i = head; i < end; i++) {
+            int v = queue[i];
+            for (int p = graph.neighborStart(v), pEnd = graph.neighborEnd(v); p < pEnd; p++) {
+                int w = graph.neighborAt(p);
+                if (stamp[w] == epoch) continue;
+                stamp[w] = epoch;
+                dist[w] = dist[v] + 1;
+                parent[w] = v;
+                queue[tail++] = w;
+                if (otherStamp[w] == epoch) {
+                    int total = dist[w] + otherDist[w];
+                    if (bestDistance < 0 || total < bestDistance) {
+                        bestDistance = total;
+                        meeting = w;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stampForward, 0);
+            Arrays.fill(stampBackward, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -7,47 +7,66 @@ import java.time.format.DateTimeParseException;
 class Post {
     int postId;
     int creatorId; // Store creator ID for easier lookup/reference
+    User creator;  // set when the post is linked to its creator, so reports need no ID lookup
+    PostNode createdNode; // its node in the creator's postsCreated list, for O(1) removal
+    int dateSlot = -1; // position in its DateIndex day bucket, -1 when not indexed
     String content;
     String creationDate;
     LocalDate parsedDate;
     SharedUserNode sharedWithListHead;
+    int sharedWithCount; // length of sharedWithListHead
 
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy");
 
 
     public Post(int postId, int creatorId, String content, String creationDate) {
+        this(postId, creatorId, content, creationDate, parseDate(creationDate));
+    }
+
+    // For callers that already parsed the date (e.g. on a loader worker thread).
+    Post(int postId, int creatorId, String content, String creationDate, LocalDate parsedDate) {
         this.postId = postId;
         this.creatorId = creatorId;
         this.content = content;
         this.creationDate = creationDate;
         this.sharedWithListHead = null;
+        this.parsedDate = parsedDate;
+        if (parsedDate == null) {
+            System.err.println("Warning: Could not parse date '" + creationDate + "' for Post ID " + postId + ". Using null date.");
+        }
+    }
+
+    // Parses a "d.M.yyyy" date, or returns null if it is not valid.
+    static LocalDate parseDate(String creationDate) {
         try {
-            this.parsedDate = LocalDate.parse(creationDate, DATE_FORMATTER);
+            return LocalDate.parse(creationDate, DATE_FORMATTER);
         } catch (DateTimeParseException e) {
-            System.err.println("Warning: Could not parse date '" + creationDate + "' for Post ID " + postId + ". Using null date.");
-            this.parsedDate = null;
+            return null;
         }
     }
 
     // --- Getters ---
     public int getPostId() { return postId; }
     public int getCreatorId() { return creatorId; }
+    public User getCreator() { return creator; }
     public String getContent() { return content; }
     public String getCreationDate() { return creationDate; }
     public LocalDate getParsedDate() { return parsedDate; }
     public SharedUserNode getSharedWithListHead() { return sharedWithListHead; }
+    public int getSharedWithCount() { return sharedWithCount; }
 
     // --- Methods for managing shared users ---
 
-    public void addSharedUser(User user) {
-        if (user == null) return;
+    // Returns true if the user was added, false if null or already on the list.
+    public boolean addSharedUser(User user) {
+        if (user == null) return false;
 
         // Check if already shared with this user
         SharedUserNode current = sharedWithListHead;
         while (current != null) {
             if (current.sharedUser.getUserId() == user.getUserId()) {
-                return; // Already shared
+                return false; // Already shared
             }
             current = current.next;
         }
@@ -55,31 +74,29 @@ class Post {
         // Add to head
         SharedUserNode newNode = new SharedUserNode(user);
         newNode.next = sharedWithListHead;
+        if (sharedWithListHead != null) sharedWithListHead.prev = newNode;
         sharedWithListHead = newNode;
+        sharedWithCount++;
+        return true;
     }
 
 
-    public boolean removeSharedUser(int userId) {
-        if (sharedWithListHead == null) {
-            return false;
-        }
-
-        // Handle head removal
-        if (sharedWithListHead.sharedUser.getUserId() == userId) {
-            sharedWithListHead = sharedWithListHead.next;
-            return true;
-        }
+    // Unlinks a node of this post's share list in O(1).
+    public void removeSharedUser(SharedUserNode node) {
+        if (node.prev != null) node.prev.next = node.next;
+        else sharedWithListHead = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        sharedWithCount--;
+    }
 
-        // Handle removal elsewhere in the list
-        SharedUserNode current = sharedWithListHead;
-        while (current.next != null) {
-            if (current.next.sharedUser.getUserId() == userId) {
-                current.next = current.next.next; // Bypass the node to remove
-                return true;
-            }
-            current = current.next;
+    // This user's node in the share list, or null; walks the share list.
+    SharedUserNode findSharedUser(int userId) {
+        for (SharedUserNode node = sharedWithListHead; node != null; node = node.next) {
+            if (node.sharedUser.getUserId() == userId) return node;
         }
-        return false; // User not found
+        return null;
     }
 
 
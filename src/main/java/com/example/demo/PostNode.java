@@ -3,9 +3,12 @@ package com.example.demo;
 class PostNode {
     Post post;
     PostNode next;
+    PostNode prev;
+    SharedUserNode share; // in a postsSharedWithMe list: this user's entry in the post's share list
 
     PostNode(Post post) {
         this.post = post;
         this.next = null;
+        this.prev = null;
     }
-}
\ No newline at end of file
+}
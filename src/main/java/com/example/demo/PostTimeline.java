@@ -0,0 +1,76 @@
+package com.example.demo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// One user's own posts ordered by (creation day, post ID), oldest first, for range queries
+// and for merging timelines. A user has few posts, so insertion and removal are a binary
+// search plus an array shift. Posts without a parsed date are not included.
+class PostTimeline {
+    private static final Post[] EMPTY = new Post[0];
+
+    private Post[] posts = EMPTY;
+    private long[] keys = new long[0]; // epoch day << 32 | post ID, parallel to posts
+    private int size;
+
+    public int size() { return size; }
+
+    public Post get(int i) { return posts[i]; }
+
+    // Sort key of post i; larger keys are newer.
+    public long keyAt(int i) { return keys[i]; }
+
+    static long key(Post post) {
+        return (post.getParsedDate().toEpochDay() << 32) | (post.getPostId() & 0xFFFFFFFFL);
+    }
+
+    public void add(Post post) {
+        if (post.getParsedDate() == null) return;
+        long key = key(post);
+        int i = lowerBound(key);
+        if (size == posts.length) {
+            int capacity = Math.max(4, size * 2);
+            posts = Arrays.copyOf(posts, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        System.arraycopy(posts, i, posts, i + 1, size - i);
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        posts[i] = post;
+        keys[i] = key;
+        size++;
+    }
+
+    public boolean remove(Post post) {
+        if (post.getParsedDate() == null) return false;
+        int i = lowerBound(key(post));
+        if (i == size || posts[i] != post) return false;
+        System.arraycopy(posts, i + 1, posts, i, size - i - 1);
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        posts[--size] = null;
+        return true;
+    }
+
+    // Posts dated within [from, to] (inclusive), oldest first.
+    public List<Post> between(LocalDate from, LocalDate to) {
+        int first = lowerBound(from.toEpochDay() << 32);
+        int last = lowerBound((to.toEpochDay() + 1) << 32);
+        List<Post> result = new ArrayList<>(Math.max(0, last - first));
+        for (int i = first; i < last; i++) {
+            result.add(posts[i]);
+        }
+        return result;
+    }
+
+    // First index whose key is >= 'key'.
+    int lowerBound(long key) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo;
+
+// Order in which users appear in the saved post reports.
+enum ReportOrder {
+    INSERTION,   // user list order (newest first), as the reports have always been written
+    NAME,        // case-insensitive name, then insertion order
+    ID,          // ascending user ID
+    POST_COUNT   // most posts created first, then insertion order
+}
@@ -0,0 +1,188 @@
+package com.example.demo;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Writes a per-user report file through a render/write pipeline.
+//
+// Users are pulled from a UserSource in windows of WINDOW_USERS. A batch of windows is rendered
+// in parallel on a fork-join pool, each window into its own reusable StringBuilder and byte buffer,
+// while the previous batch is written to the file channel in user order. Output is byte-for-byte
+// what a PrintWriter over a FileWriter would produce (default charset, unmappable chars replaced).
+class ReportWriter {
+    static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final int WINDOW_USERS = 2048;
+
+    // Appends the report section of one user. Called concurrently for different users.
+    interface SectionRenderer {
+        void render(User user, StringBuilder out);
+    }
+
+    // Cursor over the users of a report, in report order. Closing releases any temp files behind it.
+    interface UserSource extends Closeable {
+        // Fills 'into' from index 0 with up to 'max' users and returns how many were written (0 at the end).
+        int next(User[] into, int max) throws IOException;
+
+        @Override
+        default void close() throws IOException {}
+    }
+
+    // A UserSource over the user list, head to tail.
+    static UserSource fromList(UserNode head) {
+        return new UserSource() {
+            private UserNode current = head;
+
+            @Override
+            public int next(User[] into, int max) {
+                int n = 0;
+                while (n < max && current != null) {
+                    into[n++] = current.user;
+                    current = current.next;
+                }
+                return n;
+            }
+        };
+    }
+
+    // One window: its users, rendered text and encoded bytes. Reused across batches.
+    private static final class Window {
+        final User[] users = new User[WINDOW_USERS];
+        int userCount;
+        final StringBuilder text = new StringBuilder(1 << 16);
+        final CharsetEncoder encoder;
+        ByteBuffer bytes = ByteBuffer.allocate(1 << 16);
+
+        Window(Charset charset) {
+            encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        void render(SectionRenderer renderer) {
+            text.setLength(0);
+            for (int i = 0; i < userCount; i++) {
+                renderer.render(users[i], text);
+                users[i] = null;
+            }
+            encode();
+        }
+
+        void encode() {
+            encoder.reset();
+            bytes.clear();
+            CharBuffer in = CharBuffer.wrap(text);
+            while (encoder.encode(in, bytes, true).isOverflow()) grow();
+            while (encoder.flush(bytes).isOverflow()) grow();
+            bytes.flip();
+        }
+
+        private void grow() {
+            ByteBuffer grown = ByteBuffer.allocate(bytes.capacity() * 2);
+            bytes.flip();
+            grown.put(bytes);
+            bytes = grown;
+        }
+    }
+
+    private static final class RenderTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Window[] windows;
+        private final int count;
+        private final SectionRenderer renderer;
+
+        RenderTask(Window[] windows, int count, SectionRenderer renderer) {
+            this.windows = windows;
+            this.count = count;
+            this.renderer = renderer;
+        }
+
+        @Override
+        protected void compute() {
+            RecursiveAction[] parts = new RecursiveAction[count];
+            for (int i = 0; i < count; i++) {
+                Window window = windows[i];
+                parts[i] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        window.render(renderer);
+                    }
+                };
+            }
+            invokeAll(parts);
+        }
+    }
+
+    // Writes 'header' followed by every user's section to 'filename' (created or truncated).
+    public static void write(String filename, String header, UserSource users, SectionRenderer renderer,
+                             ForkJoinPool pool) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        int batchSize = Math.max(2, pool.getParallelism() * 2);
+        Window[] current = newWindows(batchSize, charset);
+        Window[] next = newWindows(batchSize, charset);
+
+        try (FileChannel channel = new FileOutputStream(filename).getChannel()) {
+            Window headerWindow = current[0];
+            headerWindow.text.setLength(0);
+            headerWindow.text.append(header);
+            headerWindow.encode();
+            writeFully(channel, headerWindow.bytes);
+
+            int currentCount = fill(current, users);
+            ForkJoinTask<Void> rendering = pool.submit(new RenderTask(current, currentCount, renderer));
+            while (currentCount > 0) {
+                rendering.join();
+                // Render the next batch while this one is written
+                int nextCount = fill(next, users);
+                rendering = pool.submit(new RenderTask(next, nextCount, renderer));
+                for (int i = 0; i < currentCount; i++) {
+                    writeFully(channel, current[i].bytes);
+                }
+
+                Window[] swap = current;
+                current = next;
+                next = swap;
+                currentCount = nextCount;
+            }
+            rendering.join();
+        }
+    }
+
+    private static Window[] newWindows(int count, Charset charset) {
+        Window[] windows = new Window[count];
+        for (int i = 0; i < count; i++) {
+            windows[i] = new Window(charset);
+        }
+        return windows;
+    }
+
+    // Loads the next users into the windows and returns how many windows are in use.
+    private static int fill(Window[] windows, UserSource users) throws IOException {
+        int used = 0;
+        while (used < windows.length) {
+            Window window = windows[used];
+            window.userCount = users.next(window.users, WINDOW_USERS);
+            if (window.userCount == 0) break;
+            used++;
+            if (window.userCount < WINDOW_USERS) break;
+        }
+        return used;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.example.demo;
 class SharedUserNode {
     User sharedUser;
     SharedUserNode next;
+    SharedUserNode prev;
+    PostNode sharedPostNode; // the post's node in sharedUser's postsSharedWithMe list, once added there
 
     SharedUserNode(User sharedUser) {
         this.sharedUser = sharedUser;
         this.next = null;
+        this.prev = null;
     }
 }
@@ -1,76 +1,109 @@
 package com.example.demo;
 
 import java.io.*;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.ForkJoinPool;
 
 class SocialNetwork {
     private UserNode userListHead;
+    private UserNode userListTail;
+    private final IntHashMap<UserNode> userIndex; // userId -> node in userListHead, kept in sync on add/delete
+    private final IntHashMap<Post> postIndex;     // postId -> post, for every post still held by its creator
+    private final NameIndex nameIndex;            // case-folded names, for exact and prefix search
+    private final ActivityRanking activityRanking; // users by posts created + shares made, for the top-N report
+    private final DateIndex dateIndex;            // dated posts by epoch day, for range queries
+    private final TextIndex textIndex;            // post content terms -> post IDs, for search
+    private final ViewCache viewCache;            // rendered per-user reports, invalidated by mutations
     private int nextPostId = 1;
 
+    private FriendshipGraph friendshipGraph;      // cached CSR snapshot, rebuilt when the version moves
+    private int friendshipGraphVersion = -1;
+    private int friendshipVersion = 0;            // bumped on every change to users or friendships
+    private PathFinder pathFinder;                // BFS state for the cached graph
+    private TriangleCounter.Result triangles;     // triangle counts of the cached graph
+    private FriendComponents components;          // union-find of friendships; null until queried or after a removal
+
+    // Write-ahead log of mutations made on top of the base data files (null when not persisting)
+    private static final int LOG_GROUP_COMMIT_RECORDS = 64;
+    private static final long LOG_GROUP_COMMIT_MILLIS = 200;
+    private static final long LOG_COMPACTION_BYTES = 64L << 20;
+    private MutationLog mutationLog;
+    private String baseUsersFile, baseFriendshipsFile, basePostsFile;
+
+    // Sorted reports sort in memory up to this many bytes of sort state, then spill runs to disk
+    private long reportSortMemoryBytes = 64L << 20;
+
     public SocialNetwork() {
         this.userListHead = null;
+        this.userListTail = null;
+        this.userIndex = new IntHashMap<>();
+        this.postIndex = new IntHashMap<>();
+        this.nameIndex = new NameIndex();
+        this.activityRanking = new ActivityRanking();
+        this.dateIndex = new DateIndex();
+        this.textIndex = new TextIndex();
+        this.viewCache = new ViewCache(16L << 20);
     }
 
     // --- Find User Methods ---
 
     public User findUserById(int userId) {
-        UserNode current = userListHead;
-        while (current != null) {
-            if (current.user.getUserId() == userId) {
-                return current.user;
-            }
-            current = current.next;
-        }
-        return null; // Not found
+        UserNode node = userIndex.get(userId);
+        return (node != null) ? node.user : null; // null if not found
+    }
+
+
+    public UserNode findUserNodeById(int userId) {
+        return userIndex.get(userId);
     }
 
 
     public User findUserByName(String name) {
-        UserNode current = userListHead;
-        while (current != null) {
-            if (current.user.getName().equalsIgnoreCase(name)) {
-                return current.user;
-            }
-            current = current.next;
-        }
-        return null; // Not found
+        return nameIndex.findExact(name); // null if not found
+    }
+
+    public User[] findUsersByNamePrefix(String prefix, int limit) {
+        return nameIndex.findByPrefix(prefix, limit);
     }
 
     // --- File Loading Methods ---
+    // All three loaders parse through CsvChannelReader: fields are read straight from the file's
+    // bytes, so a line costs no String[] and no substring per number.
 
     public void loadUsers(String filename) {
-        File file = new File(filename);
-        try (Scanner scanner = new Scanner(file)) {
-            if (scanner.hasNextLine()) {
-                scanner.nextLine(); // Skip header line
-            }
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue; // Skip empty lines
+        try (CsvChannelReader reader = new CsvChannelReader(filename)) {
+            reader.nextLine(); // Skip header line
+            while (reader.nextLine()) {
+                if (reader.isBlank()) continue; // Skip empty lines
 
-                String[] parts = line.split(",");
-                if (parts.length == 3) {
+                if (reader.fieldCount() == 3) {
                     try {
-                        int id = Integer.parseInt(parts[0].trim());
-                        String name = parts[1].trim();
-                        int age = Integer.parseInt(parts[2].trim());
+                        int id = reader.intField(0);
+                        String name = reader.stringField(1);
+                        int age = reader.intField(2);
 
                         // Check for duplicate ID before adding
                         if (findUserById(id) == null) {
-                            User newUser = new User(id, name, age);
-                            // Add user to the main list
-                            UserNode newNode = new UserNode(newUser);
-                            newNode.next = userListHead;
-                            userListHead = newNode;
+                            linkUser(new User(id, name, age));
                         } else {
                             System.err.println("Warning: Duplicate User ID " + id + " found in " + filename + ". Skipping.");
                         }
 
                     } catch (NumberFormatException e) {
-                        System.err.println("Warning: Invalid number format in users file line: " + line + ". Skipping.");
+                        System.err.println("Warning: Invalid number format in users file line: " + reader.line() + ". Skipping.");
                     }
                 } else {
-                    System.err.println("Warning: Invalid format in users file line: " + line + ". Skipping.");
+                    System.err.println("Warning: Invalid format in users file line: " + reader.line() + ". Skipping.");
                 }
             }
             System.out.println("Users loaded successfully from " + filename);
@@ -84,44 +117,35 @@ class SocialNetwork {
 
 
     public void loadFriendships(String filename) {
-        File file = new File(filename);
-        try (Scanner scanner = new Scanner(file)) {
-            if (scanner.hasNextLine()) {
-                scanner.nextLine(); // Skip header line
-            }
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
+        try (CsvChannelReader reader = new CsvChannelReader(filename)) {
+            reader.nextLine(); // Skip header line
+            while (reader.nextLine()) {
+                if (reader.isBlank()) continue;
 
-                String[] parts = line.split(",");
-                if (parts.length >= 1) { // Need at least the user ID
-                    try {
-                        int userId = Integer.parseInt(parts[0].trim());
-                        User user = findUserById(userId);
-
-                        if (user != null) {
-                            for (int i = 1; i < parts.length; i++) { // Iterate through friend IDs
-                                try {
-                                    int friendId = Integer.parseInt(parts[i].trim());
-                                    User friend = findUserById(friendId);
-                                    if (friend != null) {
-                                        // Add friendship
-                                        addFriendship(userId, friendId);
-                                    } else {
-                                        System.err.println("Warning: Friend ID " + friendId + " not found for user " + userId + ". Skipping friendship.");
-                                    }
-                                } catch (NumberFormatException e) {
-                                    System.err.println("Warning: Invalid friend ID format for user " + userId + " in line: " + line + ". Skipping friend ID.");
+                try {
+                    int userId = reader.intField(0);
+                    User user = findUserById(userId);
+
+                    if (user != null) {
+                        for (int i = 1; i < reader.fieldCount(); i++) { // Iterate through friend IDs
+                            try {
+                                int friendId = reader.intField(i);
+                                User friend = findUserById(friendId);
+                                if (friend != null) {
+                                    // Add friendship
+                                    addFriendship(userId, friendId);
+                                } else {
+                                    System.err.println("Warning: Friend ID " + friendId + " not found for user " + userId + ". Skipping friendship.");
                                 }
+                            } catch (NumberFormatException e) {
+                                System.err.println("Warning: Invalid friend ID format for user " + userId + " in line: " + reader.line() + ". Skipping friend ID.");
                             }
-                        } else {
-                            System.err.println("Warning: User ID " + userId + " not found for friendship in line: " + line + ". Skipping line.");
                         }
-                    } catch (NumberFormatException e) {
-                        System.err.println("Warning: Invalid User ID format in friendships file line: " + line + ". Skipping line.");
+                    } else {
+                        System.err.println("Warning: User ID " + userId + " not found for friendship in line: " + reader.line() + ". Skipping line.");
                     }
-                } else {
-                    System.err.println("Warning: Invalid format in friendships file line: " + line + ". Skipping.");
+                } catch (NumberFormatException e) {
+                    System.err.println("Warning: Invalid User ID format in friendships file line: " + reader.line() + ". Skipping line.");
                 }
             }
             System.out.println("Friendships loaded successfully from " + filename);
@@ -134,59 +158,78 @@ class SocialNetwork {
     }
 
     public void loadPosts(String filename) {
-        File file = new File(filename);
-        int maxPostId = 0;
-        try (Scanner scanner = new Scanner(file)) {
-            if (scanner.hasNextLine()) {
-                scanner.nextLine();
-            }
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
+        try (CsvChannelReader reader = new CsvChannelReader(filename)) {
+            reader.nextLine(); // Skip header line
+            while (reader.nextLine()) {
+                if (reader.isBlank()) continue;
 
-                String[] parts = line.split(",");
-                if (parts.length >= 4) {
+                if (reader.fieldCount() >= 4) {
                     try {
-                        int postId = Integer.parseInt(parts[0].trim());
-                        int creatorId = Integer.parseInt(parts[1].trim());
-                        String content = parts[2].trim();
-                        String date = parts[3].trim();
-
-                        User creator = findUserById(creatorId);
-                        if (creator == null) {
-                            System.err.println("Warning: Creator User ID " + creatorId + " not found for Post ID " + postId + ". Skipping post.");
-                            continue;
-                        }
+                        int postId = reader.intField(0);
+                        int creatorId = reader.intField(1);
+                        String content = reader.stringField(2);
+                        String date = reader.stringField(3);
 
-                        Post newPost = new Post(postId, creatorId, content, date);
-                        creator.addCreatedPost(newPost);
+                        User creator = resolveLoadedPostCreator(postId, creatorId, filename);
+                        if (creator == null) continue;
 
-                        if (postId >= nextPostId) {
-                            nextPostId = postId + 1;
-                        }
+                        Post newPost = new Post(postId, creatorId, content, date);
+                        linkPost(newPost, creator);
 
-                        for (int i = 4; i < parts.length; i++) {
+                        for (int i = 4; i < reader.fieldCount(); i++) {
                             try {
-                                int sharedWithId = Integer.parseInt(parts[i].trim());
-                                User sharedUser = findUserById(sharedWithId);
-                                if (sharedUser != null) {
-                                    newPost.addSharedUser(sharedUser);
-                                    sharedUser.addSharedPost(newPost);
-                                } else {
-                                    System.err.println("Warning: Shared-with User ID " + sharedWithId + " not found for Post ID " + postId + ". Skipping share.");
-                                }
+                                shareLoadedPost(newPost, reader.intField(i));
                             } catch (NumberFormatException e) {
-                                System.err.println("Warning: Invalid Shared-with User ID format for Post ID " + postId + " in line: " + line + ". Skipping share.");
+                                System.err.println("Warning: Invalid Shared-with User ID format for Post ID " + postId + " in line: " + reader.line() + ". Skipping share.");
                             }
                         }
 
                     } catch (NumberFormatException e) {
-                        System.err.println("Warning: Invalid Post/Creator ID format in posts file line: " + line + ". Skipping line.");
-                    } catch (ArrayIndexOutOfBoundsException e) {
-                        System.err.println("Warning: Missing fields in posts file line: " + line + ". Skipping line.");
+                        System.err.println("Warning: Invalid Post/Creator ID format in posts file line: " + reader.line() + ". Skipping line.");
                     }
                 } else {
-                    System.err.println("Warning: Invalid format in posts file line (minimum 4 fields required): " + line + ". Skipping.");
+                    System.err.println("Warning: Invalid format in posts file line (minimum 4 fields required): " + reader.line() + ". Skipping.");
+                }
+            }
+            System.out.println("Posts loaded successfully from " + filename);
+        } catch (FileNotFoundException e) {
+            System.err.println("Error: Posts file not found: " + filename);
+        } catch (Exception e) {
+            System.err.println("An unexpected error occurred while loading posts: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Same result and warnings as loadPosts, but the file is parsed in line-aligned chunks on the
+    // common fork-join pool (dates included). Posts are then linked to users in file order.
+    public void loadPostsParallel(String filename) {
+        try {
+            ParallelPostParser.PostChunk[] chunks = ParallelPostParser.parse(filename, ForkJoinPool.commonPool());
+            for (ParallelPostParser.PostChunk chunk : chunks) {
+                for (int r = 0; r < chunk.count; r++) {
+                    if (chunk.kinds[r] == ParallelPostParser.BAD_FORMAT) {
+                        System.err.println("Warning: Invalid format in posts file line (minimum 4 fields required): " + chunk.lines[r] + ". Skipping.");
+                        continue;
+                    }
+                    if (chunk.kinds[r] == ParallelPostParser.BAD_ID) {
+                        System.err.println("Warning: Invalid Post/Creator ID format in posts file line: " + chunk.lines[r] + ". Skipping line.");
+                        continue;
+                    }
+
+                    int postId = chunk.postIds[r];
+                    User creator = resolveLoadedPostCreator(postId, chunk.creatorIds[r], filename);
+                    if (creator == null) continue;
+
+                    Post newPost = new Post(postId, chunk.creatorIds[r], chunk.contents[r], chunk.dates[r], chunk.parsedDates[r]);
+                    linkPost(newPost, creator);
+
+                    for (int s = chunk.shareStart(r); s < chunk.shareEnd[r]; s++) {
+                        if (chunk.shareValid[s]) {
+                            shareLoadedPost(newPost, chunk.shareIds[s]);
+                        } else {
+                            System.err.println("Warning: Invalid Shared-with User ID format for Post ID " + postId + " in line: " + chunk.lines[r] + ". Skipping share.");
+                        }
+                    }
                 }
             }
             System.out.println("Posts loaded successfully from " + filename);
@@ -198,6 +241,343 @@ class SocialNetwork {
         }
     }
 
+    // Creator of a post read from a file, or null (with a warning) if the post must be skipped.
+    private User resolveLoadedPostCreator(int postId, int creatorId, String filename) {
+        User creator = findUserById(creatorId);
+        if (creator == null) {
+            System.err.println("Warning: Creator User ID " + creatorId + " not found for Post ID " + postId + ". Skipping post.");
+            return null;
+        }
+        if (postIndex.containsKey(postId)) {
+            System.err.println("Warning: Duplicate Post ID " + postId + " found in " + filename + ". Skipping.");
+            return null;
+        }
+        return creator;
+    }
+
+    private void shareLoadedPost(Post post, int sharedWithId) {
+        User sharedUser = findUserById(sharedWithId);
+        if (sharedUser != null) {
+            linkShare(post, sharedUser);
+        } else {
+            System.err.println("Warning: Shared-with User ID " + sharedWithId + " not found for Post ID " + post.getPostId() + ". Skipping share.");
+        }
+    }
+
+
+    // --- Binary Snapshot ---
+    // Payload layout (see NetworkSnapshot for the header):
+    //   int nextPostId
+    //   int userCount, then per user from tail to head: int id, int age, string name
+    //   per user from head to tail: int friendCount, friend IDs
+    //   int postCount, then per user from head to tail, per created post:
+    //       int postId, int creatorId, string content, string date, long epochDay, int shareCount, shared user IDs
+    //   per user from head to tail: int sharedCount, shared post IDs
+    // Every list is written back to front, so re-adding at the head restores the original order.
+
+    public boolean saveSnapshot(String filename) {
+        System.out.println("Saving snapshot to " + filename + "...");
+        try (NetworkSnapshot.Writer out = new NetworkSnapshot.Writer(filename)) {
+            int[] ids = new int[16];
+            out.writeInt(nextPostId);
+
+            out.writeInt(userIndex.size());
+            for (UserNode node = userListTail; node != null; node = node.prev) {
+                out.writeInt(node.user.getUserId());
+                out.writeInt(node.user.getAge());
+                out.writeString(node.user.getName());
+            }
+
+            for (UserNode node = userListHead; node != null; node = node.next) {
+                int count = 0;
+                for (FriendNode f = node.user.getFriendsListHead(); f != null; f = f.next) {
+                    if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+                    ids[count++] = f.friend.getUserId();
+                }
+                out.writeInt(count);
+                for (int i = count - 1; i >= 0; i--) out.writeInt(ids[i]);
+            }
+
+            out.writeInt(postIndex.size());
+            for (UserNode node = userListHead; node != null; node = node.next) {
+                Post[] posts = toReversedArray(node.user.getPostsCreatedHead());
+                for (Post post : posts) {
+                    out.writeInt(post.getPostId());
+                    out.writeInt(post.getCreatorId());
+                    out.writeString(post.getContent());
+                    out.writeString(post.getCreationDate());
+                    out.writeLong(post.getParsedDate() != null ? post.getParsedDate().toEpochDay() : NetworkSnapshot.NO_DATE);
+
+                    int count = 0;
+                    for (SharedUserNode s = post.getSharedWithListHead(); s != null; s = s.next) {
+                        if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+                        ids[count++] = s.sharedUser.getUserId();
+                    }
+                    out.writeInt(count);
+                    for (int i = count - 1; i >= 0; i--) out.writeInt(ids[i]);
+                }
+            }
+
+            for (UserNode node = userListHead; node != null; node = node.next) {
+                Post[] shared = toReversedArray(node.user.getPostsSharedWithMeHead());
+                out.writeInt(shared.length);
+                for (Post post : shared) out.writeInt(post.getPostId());
+            }
+            out.commit();
+            System.out.println("Snapshot saved successfully.");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Post[] toReversedArray(PostNode head) {
+        int count = 0;
+        for (PostNode p = head; p != null; p = p.next) count++;
+        Post[] posts = new Post[count];
+        for (PostNode p = head; p != null; p = p.next) posts[--count] = p.post;
+        return posts;
+    }
+
+    // Restores a snapshot written by saveSnapshot. Only valid on an empty network.
+    public boolean loadSnapshot(String filename) {
+        if (userListHead != null) {
+            System.err.println("Error: Snapshots can only be loaded into an empty network.");
+            return false;
+        }
+        try {
+            NetworkSnapshot.Reader in = new NetworkSnapshot.Reader(filename);
+            checkSnapshot(in); // before anything is restored, so a malformed payload leaves the network empty
+            in.rewind();
+            int savedNextPostId = in.readInt();
+
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                int id = in.readInt();
+                int age = in.readInt();
+                linkUser(new User(id, in.readString(), age));
+            }
+
+            for (UserNode node = userListHead; node != null; node = node.next) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    node.user.addFriend(findUserById(in.readInt()));
+                }
+            }
+            friendshipVersion++;
+            components = null;
+
+            int postCount = in.readInt();
+            for (int i = 0; i < postCount; i++) {
+                int postId = in.readInt();
+                int creatorId = in.readInt();
+                String content = in.readString();
+                String date = in.readString();
+                long epochDay = in.readLong();
+                Post post = new Post(postId, creatorId, content, date,
+                        (epochDay == NetworkSnapshot.NO_DATE) ? null : LocalDate.ofEpochDay(epochDay));
+                linkPost(post, findUserById(creatorId));
+
+                int shares = in.readInt();
+                for (int s = 0; s < shares; s++) {
+                    post.addSharedUser(findUserById(in.readInt()));
+                }
+                adjustSharesMade(findUserById(creatorId), post.getSharedWithCount());
+            }
+
+            for (UserNode node = userListHead; node != null; node = node.next) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    node.user.addSharedPost(postIndex.get(in.readInt()));
+                }
+            }
+            nextPostId = savedNextPostId;
+            System.out.println("Snapshot loaded successfully from " + filename);
+            return true;
+        } catch (NoSuchFileException | FileNotFoundException e) {
+            System.err.println("Error: Snapshot file not found: " + filename);
+        } catch (Exception e) {
+            System.err.println("Error loading snapshot " + filename + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Walks the payload in the layout saveSnapshot writes, without restoring anything, and rejects
+    // payloads that end early or carry trailing bytes, repeat a user or post ID, or refer to a
+    // user or post that is not in the snapshot.
+    private static void checkSnapshot(NetworkSnapshot.Reader in) throws IOException {
+        in.readInt(); // nextPostId
+        int userCount = in.readInt();
+        if (userCount < 0) throw new IOException("Negative user count in snapshot.");
+        IntHashMap<Boolean> userIds = new IntHashMap<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            int id = in.readInt();
+            if (userIds.put(id, Boolean.TRUE) != null) throw new IOException("Duplicate user ID " + id + " in snapshot.");
+            in.readInt(); // age
+            in.skipString();
+        }
+        for (int i = 0; i < userCount; i++) {
+            checkSnapshotIds(in, userIds, "friend");
+        }
+        int postCount = in.readInt();
+        if (postCount < 0) throw new IOException("Negative post count in snapshot.");
+        IntHashMap<Boolean> postIds = new IntHashMap<>(postCount);
+        for (int i = 0; i < postCount; i++) {
+            int id = in.readInt();
+            if (postIds.put(id, Boolean.TRUE) != null) throw new IOException("Duplicate post ID " + id + " in snapshot.");
+            int creatorId = in.readInt();
+            if (!userIds.containsKey(creatorId)) throw new IOException("Unknown creator ID " + creatorId + " in snapshot.");
+            in.skipString();
+            in.skipString();
+            in.readLong();
+            checkSnapshotIds(in, userIds, "shared-with user");
+        }
+        for (int i = 0; i < userCount; i++) {
+            checkSnapshotIds(in, postIds, "shared post");
+        }
+        if (in.hasRemaining()) throw new IOException("Snapshot has trailing data after the payload.");
+    }
+
+    // Reads a counted ID list and rejects any ID missing from known.
+    private static void checkSnapshotIds(NetworkSnapshot.Reader in, IntHashMap<Boolean> known, String what) throws IOException {
+        int count = in.readInt();
+        if (count < 0) throw new IOException("Negative " + what + " count in snapshot.");
+        for (int i = 0; i < count; i++) {
+            int id = in.readInt();
+            if (!known.containsKey(id)) throw new IOException("Unknown " + what + " ID " + id + " in snapshot.");
+        }
+    }
+
+    // --- Mutation Log (write-ahead log over the base data files) ---
+
+    // Replays an existing log on top of the already loaded base files, then records every
+    // further mutation in it. The base file names are where compaction writes the data back.
+    public boolean openMutationLog(String logFilename, String usersFilename, String friendshipsFilename, String postsFilename) {
+        if (mutationLog != null) {
+            System.err.println("Error: A mutation log is already open.");
+            return false;
+        }
+        try {
+            long validLength = MutationLog.replay(logFilename, this);
+            mutationLog = new MutationLog(logFilename, validLength, LOG_GROUP_COMMIT_RECORDS, LOG_GROUP_COMMIT_MILLIS);
+            baseUsersFile = usersFilename;
+            baseFriendshipsFile = friendshipsFilename;
+            basePostsFile = postsFilename;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error opening mutation log " + logFilename + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Commits anything still pending and stops logging.
+    public void closeMutationLog() {
+        if (mutationLog == null) return;
+        try {
+            mutationLog.close();
+        } catch (IOException e) {
+            System.err.println("Error closing mutation log: " + e.getMessage());
+        }
+        mutationLog = null;
+    }
+
+    // Folds the log into the base data files and empties it.
+    public boolean compactMutationLog() {
+        if (mutationLog == null) {
+            System.err.println("Error: No mutation log is open.");
+            return false;
+        }
+        if (!saveDataFiles(baseUsersFile, baseFriendshipsFile, basePostsFile)) {
+            return false; // keep the log: the base files were not (fully) replaced
+        }
+        try {
+            mutationLog.truncate();
+            System.out.println("Mutation log compacted into the base data files.");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error truncating mutation log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void compactMutationLogIfNeeded() {
+        try {
+            if (mutationLog.size() >= LOG_COMPACTION_BYTES) {
+                compactMutationLog();
+            }
+        } catch (IOException e) {
+            System.err.println("Error checking mutation log size: " + e.getMessage());
+        }
+    }
+
+    // Writes the current network in the users/friendships/posts text formats read by the
+    // loaders. Each file is written to a temporary file, synced, and moved into place.
+    public boolean saveDataFiles(String usersFilename, String friendshipsFilename, String postsFilename) {
+        try {
+            writeDataFile(usersFilename, writer -> {
+                writer.println("UserID,Name,Age");
+                // Loading adds users at the head, so write them tail first to keep the list order
+                for (UserNode node = userListTail; node != null; node = node.prev) {
+                    User user = node.user;
+                    writer.println(user.getUserId() + "," + csvField(user.getName()) + "," + user.getAge());
+                }
+            });
+            writeDataFile(friendshipsFilename, writer -> {
+                writer.println("UserID,Friends");
+                for (UserNode node = userListTail; node != null; node = node.prev) {
+                    writer.print(node.user.getUserId());
+                    for (FriendNode f = node.user.getFriendsListHead(); f != null; f = f.next) {
+                        writer.print("," + f.friend.getUserId());
+                    }
+                    writer.println();
+                }
+            });
+            writeDataFile(postsFilename, writer -> {
+                writer.println("PostID,CreatorID,Content,CreationDate,SharedWith");
+                for (UserNode node = userListTail; node != null; node = node.prev) {
+                    for (Post post : toReversedArray(node.user.getPostsCreatedHead())) {
+                        writer.print(post.getPostId() + "," + post.getCreatorId() + "," + csvField(post.getContent()) + "," + post.getCreationDate());
+                        for (SharedUserNode s = post.getSharedWithListHead(); s != null; s = s.next) {
+                            writer.print("," + s.sharedUser.getUserId());
+                        }
+                        writer.println();
+                    }
+                }
+            });
+            commitDataFile(usersFilename);
+            commitDataFile(friendshipsFilename);
+            commitDataFile(postsFilename);
+            System.out.println("Data files saved successfully.");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving data files: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // The file formats have no quoting, so a comma inside a value would split it into two fields.
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0) return value;
+        System.err.println("Warning: Replacing commas in '" + value + "' with semicolons so the saved file stays readable.");
+        return value.replace(',', ';');
+    }
+
+    // Writes 'filename.tmp' and syncs it to disk; commitDataFile then moves it into place.
+    private static void writeDataFile(String filename, Consumer<PrintWriter> body) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(filename + ".tmp");
+             PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(fileOut, StandardCharsets.UTF_8), 1 << 16))) {
+            body.accept(writer);
+            writer.flush();
+            if (writer.checkError()) throw new IOException("Could not write " + filename + ".tmp");
+            fileOut.getFD().sync();
+        }
+    }
+
+    private static void commitDataFile(String filename) throws IOException {
+        Files.move(Paths.get(filename + ".tmp"), Paths.get(filename), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
 
     // --- User Management Operations ---
 
@@ -206,10 +586,11 @@ class SocialNetwork {
             System.err.println("Error: User with ID " + userId + " already exists.");
             return false;
         }
-        User newUser = new User(userId, name, age);
-        UserNode newNode = new UserNode(newUser);
-        newNode.next = userListHead;
-        userListHead = newNode;
+        linkUser(new User(userId, name, age));
+        if (mutationLog != null) {
+            mutationLog.logAddUser(userId, name, age);
+            compactMutationLogIfNeeded();
+        }
         System.out.println("User '" + name + "' (ID: " + userId + ") added successfully.");
         return true;
     }
@@ -217,8 +598,18 @@ class SocialNetwork {
     public boolean updateUser(int userId, String newName, int newAge) {
         User user = findUserById(userId);
         if (user != null) {
-            user.setName(newName);
+            if (!user.getName().equals(newName)) {
+                nameIndex.remove(user, user.getName());
+                user.setName(newName);
+                nameIndex.add(user);
+                invalidateViewsShowingName(user);
+            }
             user.setAge(newAge);
+            viewCache.invalidateUser(userId);
+            if (mutationLog != null) {
+                mutationLog.logUpdateUser(userId, newName, newAge);
+                compactMutationLogIfNeeded();
+            }
             System.out.println("User ID " + userId + " updated successfully.");
             return true;
         } else {
@@ -234,51 +625,90 @@ class SocialNetwork {
             return false;
         }
 
+        // Own posts: deleting them also removes them from every recipient's shared list
         PostNode currentPostNode = userToDelete.getPostsCreatedHead();
         while (currentPostNode != null) {
+            PostNode nextPostNode = currentPostNode.next; // deleting unlinks the node
             deletePostInternal(currentPostNode.post.getPostId(), userId, false);
-            currentPostNode = currentPostNode.next;
+            currentPostNode = nextPostNode;
         }
         userToDelete.postsCreatedHead = null;
-
-        UserNode current = userListHead;
-        while (current != null) {
-            if (current.user.getUserId() != userId) {
-                current.user.removeFriend(userId);
-
-                PostNode sharedPostNode = current.user.getPostsCreatedHead();
-                while (sharedPostNode != null) {
-                    sharedPostNode.post.removeSharedUser(userId);
-                    sharedPostNode = sharedPostNode.next;
-                }
-
-                PostNode sharedWithDeleted = userToDelete.getPostsSharedWithMeHead();
-                while (sharedWithDeleted != null) {
-                    sharedWithDeleted.post.removeSharedUser(userId);
-                    sharedWithDeleted = sharedWithDeleted.next;
+        userToDelete.createdPostCount = 0;
+
+        // Friendships are symmetric, so the deleted user's own list names every friend to update
+        FriendNode friendNode = userToDelete.getFriendsListHead();
+        while (friendNode != null) {
+            friendNode.friend.removeFriend(userId);
+            invalidateFriendViews(friendNode.friend);
+            friendNode = friendNode.next;
+        }
+        userToDelete.friendsListHead = null;
+        userToDelete.friendCount = 0;
+
+        // postsSharedWithMe is the reverse of Post.sharedWithList: exactly the posts naming this user
+        PostNode sharedWithDeleted = userToDelete.getPostsSharedWithMeHead();
+        while (sharedWithDeleted != null) {
+            if (sharedWithDeleted.share != null) {
+                sharedWithDeleted.post.removeSharedUser(sharedWithDeleted.share);
+                User sharer = sharedWithDeleted.post.getCreator();
+                if (sharer != null) {
+                    adjustSharesMade(sharer, -1);
+                    invalidatePostViews(sharer, ViewCache.POSTS_CREATED);
                 }
-
             }
-            current = current.next;
+            sharedWithDeleted = sharedWithDeleted.next;
         }
         userToDelete.postsSharedWithMeHead = null;
+        userToDelete.sharedPostCount = 0;
+
+        unlinkUser(userIndex.remove(userId));
+        nameIndex.remove(userToDelete, userToDelete.getName());
+        activityRanking.remove(userToDelete);
+        viewCache.invalidateUser(userId);
+        friendshipVersion++;
+        components = null; // union-find cannot split; rebuilt on the next query
+        if (mutationLog != null) {
+            mutationLog.logDeleteUser(userId);
+            compactMutationLogIfNeeded();
+        }
+
+        System.out.println("User ID " + userId + " and associated data deleted successfully.");
+        return true;
+    }
 
 
-        if (userListHead.user.getUserId() == userId) {
-            userListHead = userListHead.next;
+    // Adds the user at the head of the user list and registers it in the ID and name indexes.
+    private void linkUser(User user) {
+        UserNode newNode = new UserNode(user);
+        newNode.next = userListHead;
+        if (userListHead != null) {
+            userListHead.prev = newNode;
         } else {
-            current = userListHead;
-            while (current.next != null) {
-                if (current.next.user.getUserId() == userId) {
-                    current.next = current.next.next;
-                    break;
-                }
-                current = current.next;
-            }
+            userListTail = newNode;
         }
+        userListHead = newNode;
+        userIndex.put(user.getUserId(), newNode);
+        nameIndex.add(user);
+        activityRanking.add(user);
+        friendshipVersion++;
+        if (components != null) components.addUser(user);
+    }
 
-        System.out.println("User ID " + userId + " and associated data deleted successfully.");
-        return true;
+
+    // Removes a node from the doubly linked user list in O(1).
+    private void unlinkUser(UserNode node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            userListHead = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            userListTail = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
     }
 
 
@@ -295,6 +725,15 @@ class SocialNetwork {
             }
             user1.addFriend(user2);
             user2.addFriend(user1);
+            friendshipVersion++;
+            if (components != null) components.union(user1, user2);
+            invalidateFriendViews(user1);
+            invalidateFriendViews(user2);
+            invalidateFriendsEngagement(user1);
+            if (mutationLog != null) {
+                mutationLog.logAddFriendship(userId1, userId2);
+                compactMutationLogIfNeeded();
+            }
             System.out.println("Friendship added between " + user1.getName() + " and " + user2.getName());
             return true;
         } else {
@@ -321,6 +760,15 @@ class SocialNetwork {
         }
 
         if (removed1 || removed2) {
+            friendshipVersion++;
+            components = null;
+            if (user1 != null) invalidateFriendViews(user1);
+            if (user2 != null) invalidateFriendViews(user2);
+            if (user1 != null) invalidateFriendsEngagement(user1);
+            if (mutationLog != null) {
+                mutationLog.logRemoveFriendship(userId1, userId2);
+                compactMutationLogIfNeeded();
+            }
             System.out.println("Friendship removed between users " + userId1 + " and " + userId2);
             return true;
         } else if (user1 != null && user2 != null) {
@@ -334,15 +782,23 @@ class SocialNetwork {
     // --- Post Management ---
 
     public boolean createPost(int creatorId, String content, String creationDate, int[] sharedWithIds) {
+        return createPostWithId(nextPostId, creatorId, content, creationDate, sharedWithIds);
+    }
+
+    // createPost with a caller-chosen ID; used when replaying the mutation log.
+    boolean createPostWithId(int postId, int creatorId, String content, String creationDate, int[] sharedWithIds) {
         User creator = findUserById(creatorId);
         if (creator == null) {
             System.err.println("Error: Creator User ID " + creatorId + " not found.");
             return false;
         }
+        if (postIndex.containsKey(postId)) {
+            System.err.println("Error: Post ID " + postId + " already exists.");
+            return false;
+        }
 
-        int postId = nextPostId++;
         Post newPost = new Post(postId, creatorId, content, creationDate);
-        creator.addCreatedPost(newPost);
+        linkPost(newPost, creator);
 
         System.out.print("Post ID " + postId + " created by " + creator.getName() + ".");
 
@@ -352,8 +808,7 @@ class SocialNetwork {
                 User sharedUser = findUserById(sharedId);
                 if (sharedUser != null) {
                     if (sharedUser.getUserId() != creatorId) {
-                        newPost.addSharedUser(sharedUser);
-                        sharedUser.addSharedPost(newPost);
+                        linkShare(newPost, sharedUser);
                         System.out.print(sharedId + " ");
                     }
                 } else {
@@ -365,37 +820,153 @@ class SocialNetwork {
             System.out.println(" (Not shared with specific users).");
         }
 
-
+        if (mutationLog != null) {
+            mutationLog.logCreatePost(postId, creatorId, content, creationDate, sharedWithIds);
+            compactMutationLogIfNeeded();
+        }
         return true;
     }
 
 
-    private boolean deletePostInternal(int postId, int requestingUserId, boolean cascade) {
-        User requester = findUserById(requestingUserId);
-        if (requester == null) {
-            System.err.println("Error: Requesting user ID " + requestingUserId + " not found.");
-            return false;
+    // Attaches a new post to its creator and registers it in the post ID index.
+    private void linkPost(Post post, User creator) {
+        post.creator = creator;
+        creator.addCreatedPost(post);
+        postIndex.put(post.getPostId(), post);
+        dateIndex.add(post);
+        textIndex.add(post);
+        creator.timeline.add(post);
+        activityRanking.adjust(creator, 1);
+        invalidatePostViews(creator, ViewCache.POSTS_CREATED);
+        invalidateFriendsFeeds(creator);
+        if (post.getPostId() >= nextPostId) {
+            nextPostId = post.getPostId() + 1;
+        }
+    }
+
+    // Shares a post with a user on both sides; each new recipient counts as one share made by the creator.
+    private void linkShare(Post post, User recipient) {
+        if (post.addSharedUser(recipient)) {
+            recipient.addSharedPost(post);
+            invalidatePostViews(recipient, ViewCache.POSTS_SHARED);
+            User creator = post.getCreator();
+            if (creator != null) {
+                adjustSharesMade(creator, 1);
+                invalidatePostViews(creator, ViewCache.POSTS_CREATED);
+            }
         }
+    }
 
-        Post postToDelete = null;
-        User creator = null;
+    // --- View cache invalidation ---
 
-        UserNode currentUserNode = userListHead;
-        while (currentUserNode != null && postToDelete == null) {
-            PostNode currentPostNode = currentUserNode.user.getPostsCreatedHead();
-            while (currentPostNode != null) {
-                if (currentPostNode.post.getPostId() == postId) {
-                    postToDelete = currentPostNode.post;
-                    creator = currentUserNode.user;
-                    break;
-                }
-                currentPostNode = currentPostNode.next;
+    // A post list of the user changed: drops that report and the engagement counts.
+    private void invalidatePostViews(User user, int postViewKind) {
+        viewCache.invalidate(postViewKind, user.getUserId());
+        viewCache.invalidate(ViewCache.ENGAGEMENT, user.getUserId());
+    }
+
+    // The user's friend list changed: friend count and news feed.
+    private void invalidateFriendViews(User user) {
+        viewCache.invalidate(ViewCache.ENGAGEMENT, user.getUserId());
+        viewCache.invalidate(ViewCache.NEWS_FEED, user.getUserId());
+    }
+
+    // A friendship of the user changed: the mutual friends of the pair (all among the user's
+    // friends) gained or lost a triangle, which shows in their clustering coefficient.
+    private void invalidateFriendsEngagement(User user) {
+        if (viewCache.isEmpty()) return;
+        for (FriendNode node = user.getFriendsListHead(); node != null; node = node.next) {
+            viewCache.invalidate(ViewCache.ENGAGEMENT, node.friend.getUserId());
+        }
+    }
+
+    // The user's own posts changed, so the feeds of all friends may have.
+    private void invalidateFriendsFeeds(User user) {
+        if (viewCache.isEmpty()) return;
+        for (FriendNode node = user.getFriendsListHead(); node != null; node = node.next) {
+            viewCache.invalidate(ViewCache.NEWS_FEED, node.friend.getUserId());
+        }
+    }
+
+    // After a rename: every other user's view that prints this user's name.
+    private void invalidateViewsShowingName(User user) {
+        if (viewCache.isEmpty()) return;
+        for (PostNode own = user.getPostsCreatedHead(); own != null; own = own.next) {
+            for (SharedUserNode shared = own.post.getSharedWithListHead(); shared != null; shared = shared.next) {
+                viewCache.invalidate(ViewCache.POSTS_SHARED, shared.sharedUser.getUserId());
+            }
+        }
+        for (PostNode received = user.getPostsSharedWithMeHead(); received != null; received = received.next) {
+            viewCache.invalidate(ViewCache.POSTS_CREATED, received.post.getCreatorId());
+        }
+        invalidateFriendsFeeds(user);
+    }
+
+    public ViewCache getViewCache() {
+        return viewCache;
+    }
+
+    private void adjustSharesMade(User creator, int delta) {
+        creator.sharesMade += delta;
+        activityRanking.adjust(creator, delta);
+    }
+
+    public Post findPostById(int postId) {
+        return postIndex.get(postId);
+    }
+
+    // Posts in the network dated within [from, to] (inclusive), ordered by date then post ID.
+    // Posts whose date could not be parsed are never returned.
+    public List<Post> findPostsBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) return Collections.emptyList();
+        return dateIndex.between(from, to);
+    }
+
+    public int countPostsBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) return 0;
+        return dateIndex.countBetween(from, to);
+    }
+
+    // Posts created by one user within [from, to] (inclusive), oldest first.
+    public List<Post> findPostsByUserBetween(int userId, LocalDate from, LocalDate to) {
+        User user = findUserById(userId);
+        if (user == null || from == null || to == null || from.isAfter(to)) return Collections.emptyList();
+        return user.timeline.between(from, to);
+    }
+
+
+    // Posts whose content contains all (matchAll) or any of the query's words, ascending by post ID.
+    // Matching ignores case and punctuation.
+    public List<Post> searchPosts(String query, boolean matchAll) {
+        return searchPosts(query, matchAll, -1, null, null);
+    }
+
+    // As above, optionally restricted to one creator (creatorId >= 0) and to posts dated within
+    // [from, to]; a null bound is open. Posts without a valid date fail any date bound.
+    public List<Post> searchPosts(String query, boolean matchAll, int creatorId, LocalDate from, LocalDate to) {
+        int[] ids = textIndex.search(query, matchAll);
+        List<Post> result = new ArrayList<>();
+        for (int id : ids) {
+            Post post = postIndex.get(id);
+            if (post == null) continue;
+            if (creatorId >= 0 && post.getCreatorId() != creatorId) continue;
+            if (from != null || to != null) {
+                LocalDate date = post.getParsedDate();
+                if (date == null || (from != null && date.isBefore(from)) || (to != null && date.isAfter(to))) continue;
             }
-            if (postToDelete != null) break;
-            currentUserNode = currentUserNode.next;
+            result.add(post);
         }
+        return result;
+    }
 
+    private boolean deletePostInternal(int postId, int requestingUserId, boolean cascade) {
+        User requester = findUserById(requestingUserId);
+        if (requester == null) {
+            System.err.println("Error: Requesting user ID " + requestingUserId + " not found.");
+            return false;
+        }
 
+        Post postToDelete = postIndex.get(postId);
         if (postToDelete == null) {
             if (!cascade) System.err.println("Error: Post ID " + postId + " not found.");
             return false;
@@ -403,8 +974,16 @@ class SocialNetwork {
 
 
         if (postToDelete.getCreatorId() != requestingUserId) {
-            boolean removedFromView = requester.removeSharedPost(postId);
-            if (removedFromView) {
+            // The requester's share entry leads to their node in postsSharedWithMe
+            SharedUserNode share = postToDelete.findSharedUser(requestingUserId);
+            if (share != null && share.sharedPostNode != null) {
+                requester.removeSharedPost(share.sharedPostNode);
+                invalidatePostViews(requester, ViewCache.POSTS_SHARED);
+                invalidatePostViews(postToDelete.getCreator(), ViewCache.POSTS_CREATED);
+                // Keep the post's share list the exact reverse of the users' shared lists
+                postToDelete.removeSharedUser(share);
+                User creator = postToDelete.getCreator();
+                if (creator != null) adjustSharesMade(creator, -1);
                 System.out.println("Post ID " + postId + " removed from " + requester.getName() + "'s view.");
                 return true;
             } else {
@@ -417,12 +996,24 @@ class SocialNetwork {
 
         SharedUserNode sharedNode = postToDelete.getSharedWithListHead();
         while (sharedNode != null) {
-            sharedNode.sharedUser.removeSharedPost(postId);
+            if (sharedNode.sharedPostNode != null) sharedNode.sharedUser.removeSharedPost(sharedNode.sharedPostNode);
+            invalidatePostViews(sharedNode.sharedUser, ViewCache.POSTS_SHARED);
             sharedNode = sharedNode.next;
         }
 
 
-        boolean removedFromCreator = creator.removeCreatedPost(postId);
+        User creator = postToDelete.getCreator();
+        boolean removedFromCreator = creator != null && creator.removeCreatedPost(postToDelete);
+        postIndex.remove(postId);
+        dateIndex.remove(postToDelete);
+        textIndex.remove(postToDelete);
+        if (removedFromCreator) {
+            creator.timeline.remove(postToDelete);
+            invalidatePostViews(creator, ViewCache.POSTS_CREATED);
+            invalidateFriendsFeeds(creator);
+            activityRanking.adjust(creator, -1);
+            adjustSharesMade(creator, -postToDelete.getSharedWithCount());
+        }
 
         if (removedFromCreator) {
             System.out.println("Post ID " + postId + " deleted successfully by creator " + creator.getName() + ".");
@@ -435,7 +1026,12 @@ class SocialNetwork {
     }
 
     public boolean deletePost(int postId, int requestingUserId) {
-        return deletePostInternal(postId, requestingUserId, true);
+        boolean deleted = deletePostInternal(postId, requestingUserId, true);
+        if (deleted && mutationLog != null) {
+            mutationLog.logDeletePost(postId, requestingUserId);
+            compactMutationLogIfNeeded();
+        }
+        return deleted;
     }
 
 
@@ -479,7 +1075,7 @@ class SocialNetwork {
             System.out.println("No posts shared with this user.");
         }
         while (current != null) {
-            User creator = findUserById(current.post.getCreatorId());
+            User creator = current.post.getCreator();
             String creatorName = (creator != null) ? creator.getName() : "Unknown";
             System.out.println(current.post + " (Creator: " + creatorName + ")");
             current = current.next;
@@ -489,20 +1085,13 @@ class SocialNetwork {
 
     public void displayMostActiveUsers(int n) {
         System.out.println("\n--- Top " + n + " Most Active Users ---");
-
-        System.out.println("Most Active Users report not fully implemented yet.");
-        UserNode current = userListHead;
-        if (current == null) {
+        User[] top = activityRanking.top(n);
+        if (top.length == 0) {
             System.out.println("No users in the network.");
-            return;
         }
-        System.out.println("(Simplified: Showing total created posts per user)");
-        while (current != null) {
-            System.out.println(" - " + current.user.getName() + ": " + current.user.countCreatedPosts() + " posts created");
-            current = current.next;
+        for (int rank = 0; rank < top.length; rank++) {
+            System.out.println(formatActivityLine(rank + 1, top[rank]));
         }
-
-
         System.out.println("---------------------------------");
     }
 
@@ -512,98 +1101,362 @@ class SocialNetwork {
             System.out.println("User ID " + userId + " not found.");
             return;
         }
-        System.out.println("\n--- Engagement Metrics for " + user.getName() + " ---");
-        System.out.println("Posts Created: " + user.countCreatedPosts());
-        System.out.println("Posts Shared With User: " + user.countSharedPosts());
-        System.out.println("------------------------------------------");
+        System.out.println();
+        System.out.print(getEngagementMetricsReport(userId));
     }
 
 
-    public void savePostsCreatedReport(String filename /*, boolean sortedByName */) {
-        System.out.println("Saving Posts Created Report to " + filename + "...");
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println("Posts Created Report");
-            writer.println("====================");
-
+    public void savePostsCreatedReport(String filename) {
+        savePostsCreatedReport(filename, ReportOrder.INSERTION);
+    }
 
-            UserNode current = userListHead;
-            while (current != null) {
-                writer.println("\nUser: " + current.user.getName() + " (ID: " + current.user.getUserId() + ")");
-                PostNode postNode = current.user.getPostsCreatedHead();
-                if (postNode == null) {
-                    writer.println("  No posts created.");
-                }
-                while (postNode != null) {
-                    Post post = postNode.post;
-                    writer.print("  - Post ID: " + post.getPostId());
-                    writer.print(", Content: " + post.getContent());
-                    writer.print(", " + post.getCreationDate());
-                    writer.print(", Shared With: ");
-                    SharedUserNode shared = post.getSharedWithListHead();
-                    if (shared == null) {
-                        writer.print("None");
-                    } else {
-                        boolean first = true;
-                        while (shared != null) {
-                            if (!first) writer.print(", ");
-                            writer.print(shared.sharedUser.getName());
-                            shared = shared.next;
-                            first = false;
-                        }
-                    }
-                    writer.println();
-                    postNode = postNode.next;
-                }
-                current = current.next;
-            }
+    public void savePostsCreatedReport(String filename, ReportOrder order) {
+        System.out.println("Saving Posts Created Report to " + filename + "...");
+        String nl = ReportWriter.LINE_SEPARATOR;
+        try (ReportWriter.UserSource users = reportUsers(order)) {
+            ReportWriter.write(filename, "Posts Created Report" + nl + "====================" + nl,
+                    users, this::appendPostsCreatedSection, ForkJoinPool.commonPool());
             System.out.println("Report saved successfully.");
         } catch (IOException e) {
             System.err.println("Error saving posts created report: " + e.getMessage());
         }
     }
 
-    public void savePostsSharedWithReport(String filename /*, boolean sortedByName */) {
-        System.out.println("Saving Posts Shared With Report to " + filename + "...");
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println("Posts Shared With User Report");
-            writer.println("=============================");
-
-            UserNode current = userListHead;
-            while (current != null) {
-                writer.println("\nUser: " + current.user.getName() + " (ID: " + current.user.getUserId() + ")");
-                PostNode postNode = current.user.getPostsSharedWithMeHead();
-                if (postNode == null) {
-                    writer.println("  No posts shared with this user.");
+    private void appendPostsCreatedSection(User user, StringBuilder out) {
+        String nl = ReportWriter.LINE_SEPARATOR;
+        out.append("\nUser: ").append(user.getName()).append(" (ID: ").append(user.getUserId()).append(')').append(nl);
+        PostNode postNode = user.getPostsCreatedHead();
+        if (postNode == null) {
+            out.append("  No posts created.").append(nl);
+        }
+        while (postNode != null) {
+            Post post = postNode.post;
+            out.append("  - Post ID: ").append(post.getPostId())
+                    .append(", Content: ").append(post.getContent())
+                    .append(", ").append(post.getCreationDate())
+                    .append(", Shared With: ");
+            SharedUserNode shared = post.getSharedWithListHead();
+            if (shared == null) {
+                out.append("None");
+            } else {
+                boolean first = true;
+                while (shared != null) {
+                    if (!first) out.append(", ");
+                    out.append(shared.sharedUser.getName());
+                    shared = shared.next;
+                    first = false;
                 }
-                while (postNode != null) {
-                    Post post = postNode.post;
-                    User creator = findUserById(post.getCreatorId());
-                    String creatorName = (creator != null) ? creator.getName() : "Unknown";
+            }
+            out.append(nl);
+            postNode = postNode.next;
+        }
+    }
 
-                    writer.print("  - Post ID: " + post.getPostId());
-                    writer.print(", Content: " + post.getContent());
-                    writer.print(", " + post.getCreationDate());
-                    writer.println(", Creator: " + creatorName + " (ID: " + post.getCreatorId() + ")");
+    public void savePostsSharedWithReport(String filename) {
+        savePostsSharedWithReport(filename, ReportOrder.INSERTION);
+    }
 
-                    postNode = postNode.next;
-                }
-                current = current.next;
-            }
+    public void savePostsSharedWithReport(String filename, ReportOrder order) {
+        System.out.println("Saving Posts Shared With Report to " + filename + "...");
+        String nl = ReportWriter.LINE_SEPARATOR;
+        try (ReportWriter.UserSource users = reportUsers(order)) {
+            ReportWriter.write(filename, "Posts Shared With User Report" + nl + "=============================" + nl,
+                    users, this::appendPostsSharedWithSection, ForkJoinPool.commonPool());
             System.out.println("Report saved successfully.");
         } catch (IOException e) {
             System.err.println("Error saving posts shared with report: " + e.getMessage());
         }
     }
 
+    private ReportWriter.UserSource reportUsers(ReportOrder order) throws IOException {
+        return UserSorter.sorted(userListHead, userIndex.size(), order, reportSortMemoryBytes, this::findUserById);
+    }
+
+    public void setReportSortMemoryBytes(long bytes) {
+        this.reportSortMemoryBytes = bytes;
+    }
+
+    private void appendPostsSharedWithSection(User user, StringBuilder out) {
+        String nl = ReportWriter.LINE_SEPARATOR;
+        out.append("\nUser: ").append(user.getName()).append(" (ID: ").append(user.getUserId()).append(')').append(nl);
+        PostNode postNode = user.getPostsSharedWithMeHead();
+        if (postNode == null) {
+            out.append("  No posts shared with this user.").append(nl);
+        }
+        while (postNode != null) {
+            Post post = postNode.post;
+            User creator = post.getCreator();
+            String creatorName = (creator != null) ? creator.getName() : "Unknown";
+
+            out.append("  - Post ID: ").append(post.getPostId())
+                    .append(", Content: ").append(post.getContent())
+                    .append(", ").append(post.getCreationDate())
+                    .append(", Creator: ").append(creatorName).append(" (ID: ").append(post.getCreatorId()).append(')')
+                    .append(nl);
+            postNode = postNode.next;
+        }
+    }
+
     public UserNode getUserListHead() {
         return userListHead;
     }
 
+    public UserNode getUserListTail() {
+        return userListTail;
+    }
+
+    // Read-only CSR view of the current friendships. The snapshot is cached and only rebuilt
+    // after users or friendships change, so analytics can call this freely.
+    public FriendshipGraph getFriendshipGraph() {
+        if (friendshipGraph == null || friendshipGraphVersion != friendshipVersion) {
+            friendshipGraph = FriendshipGraph.fromUsers(userListHead);
+            friendshipGraphVersion = friendshipVersion;
+        }
+        return friendshipGraph;
+    }
+
+    // The latest k posts created by the user's friends, newest first by date (then post ID).
+    // Posts without a parsed date are not part of the feed.
+    public List<Post> getNewsFeed(int userId, int k) {
+        User user = findUserById(userId);
+        if (user == null) return Collections.emptyList();
+        return NewsFeed.latest(user, k);
+    }
+
+    public String getNewsFeedReport(int userId, int k) {
+        User user = findUserById(userId);
+        if (user == null) {
+            return "User ID " + userId + " not found.";
+        }
+        String cached = viewCache.get(ViewCache.NEWS_FEED, userId, k);
+        if (cached != null) {
+            return cached;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append("--- News Feed for ").append(user.getName())
+                .append(" (ID: ").append(userId).append(") ---\n");
+        List<Post> feed = NewsFeed.latest(user, k);
+        if (feed.isEmpty()) {
+            report.append("No posts from friends.\n");
+        }
+        for (Post post : feed) {
+            report.append(post.getCreationDate()).append(" - ").append(post.getCreator().getName())
+                    .append(" (ID:").append(post.getCreatorId()).append("): \"")
+                    .append(post.getContent()).append("\" [Post ID: ").append(post.getPostId()).append("]\n");
+        }
+        report.append("------------------------------------------\n");
+        String view = report.toString();
+        viewCache.put(ViewCache.NEWS_FEED, userId, k, view);
+        return view;
+    }
+
+    // Number of friends two users have in common.
+    public int countMutualFriends(int userId1, int userId2) {
+        return getFriendshipGraph().mutualFriendCount(userId1, userId2);
+    }
+
+    // User IDs of the friends two users have in common, ascending.
+    public int[] getMutualFriendIds(int userId1, int userId2) {
+        return getFriendshipGraph().mutualFriendIds(userId1, userId2);
+    }
+
+    // --- Connected components ---
+
+    // Union-find over all users: built from the friend lists on first use, then kept current
+    // by addUser/addFriendship. Removals drop it and the next query rebuilds it.
+    private FriendComponents components() {
+        if (components == null) {
+            components = FriendComponents.build(userListHead);
+        }
+        return components;
+    }
+
+    // Representative user ID of the user's friendship component, or -1 if the user does not exist.
+    public int getComponentId(int userId) {
+        User user = findUserById(userId);
+        return (user != null) ? components().componentIdOf(user) : -1;
+    }
+
+    // Number of users in the user's component (1 for a user without friends), or 0 if unknown.
+    public int getComponentSize(int userId) {
+        User user = findUserById(userId);
+        return (user != null) ? components().componentSizeOf(user) : 0;
+    }
+
+    public boolean areConnected(int userId1, int userId2) {
+        User user1 = findUserById(userId1);
+        User user2 = findUserById(userId2);
+        return user1 != null && user2 != null && components().sameComponent(user1, user2);
+    }
+
+    public int getComponentCount() {
+        return components().componentCount();
+    }
+
+    // {component size, number of components of that size} pairs, ascending by size.
+    public int[][] getComponentSizeHistogram() {
+        return components().sizeHistogram();
+    }
+
+    public String getComponentsReport() {
+        FriendComponents c = components();
+        StringBuilder report = new StringBuilder();
+        report.append("--- Friendship Components ---\n");
+        report.append("Components: ").append(c.componentCount()).append("\n");
+        report.append("Largest Component: ").append(c.largestComponentSize()).append(" users\n");
+        report.append("Size Histogram (size: count):\n");
+        for (int[] bucket : c.sizeHistogram()) {
+            report.append("  ").append(bucket[0]).append(": ").append(bucket[1]).append("\n");
+        }
+        TriangleCounter.Result tri = triangles();
+        report.append("Triangles: ").append(tri.totalTriangles()).append("\n");
+        report.append("Average Clustering Coefficient: ").append(String.format("%.3f", tri.averageClustering())).append("\n");
+        report.append("Global Clustering Coefficient: ").append(String.format("%.3f", tri.globalClustering())).append("\n");
+        report.append("------------------------------------------\n");
+        return report.toString();
+    }
+
+    // Hops on the shortest friendship path between two users, or -1 if there is none within
+    // maxDepth hops. Use Integer.MAX_VALUE for no cutoff.
+    public int degreesOfSeparation(int userId1, int userId2, int maxDepth) {
+        return pathFinder().distance(userId1, userId2, maxDepth);
+    }
+
+    // User IDs along one shortest friendship path (both ends included), or an empty array.
+    public int[] findShortestPath(int userId1, int userId2, int maxDepth) {
+        return pathFinder().path(userId1, userId2, maxDepth);
+    }
+
+    // Reused across queries until the friendship graph changes.
+    private PathFinder pathFinder() {
+        FriendshipGraph graph = getFriendshipGraph();
+        if (pathFinder == null || pathFinder.graph() != graph) {
+            pathFinder = new PathFinder(graph);
+        }
+        return pathFinder;
+    }
+
+    // "People you may know": up to k non-friends ranked by mutual friends (then lower user ID).
+    public FriendRecommender.Recommendation[] recommendFriends(int userId, int k) {
+        FriendshipGraph graph = getFriendshipGraph();
+        return new FriendRecommender(graph).recommend(graph.indexOf(userId), k);
+    }
+
+    // Recommendations for every user at once, in parallel. result[i] belongs to
+    // getFriendshipGraph().userIdAt(i).
+    public FriendRecommender.Recommendation[][] recommendFriendsForAll(int k) {
+        return new FriendRecommender(getFriendshipGraph()).recommendAll(k, ForkJoinPool.commonPool());
+    }
+
+    // --- Triangles and clustering ---
+
+    // Counted in parallel for the whole graph, then reused until the friendship graph changes.
+    private TriangleCounter.Result triangles() {
+        FriendshipGraph graph = getFriendshipGraph();
+        if (triangles == null || triangles.getGraph() != graph) {
+            triangles = new TriangleCounter(graph).count(ForkJoinPool.commonPool());
+        }
+        return triangles;
+    }
+
+    // Triangles through one user. Read from the network-wide count while that still matches the
+    // friendships; otherwise the user's sorted friend IDs are intersected with each friend's, in
+    // O(sum of friend degrees) plus sorting, rather than rebuilding the graph and recounting everything.
+    private int userTriangles(User user) {
+        if (triangles != null && triangles.getGraph() == friendshipGraph && friendshipGraphVersion == friendshipVersion) {
+            return triangles.trianglesAt(friendshipGraph.indexOf(user.getUserId()));
+        }
+        int[] mine = sortedFriendIds(user, null);
+        int[] theirs = null;
+        long shared = 0;
+        for (FriendNode node = user.getFriendsListHead(); node != null; node = node.next) {
+            theirs = sortedFriendIds(node.friend, theirs);
+            shared += SortedIntSets.intersectionSize(mine, 0, mine.length, theirs, 0, node.friend.getFriendCount());
+        }
+        return (int) (shared / 2); // each triangle is seen from both of its other corners
+    }
+
+    // The user's friend IDs sorted into the first getFriendCount() slots of 'into' (reallocated if too small).
+    private static int[] sortedFriendIds(User user, int[] into) {
+        int count = user.getFriendCount();
+        if (into == null || into.length < count) into = new int[count];
+        int i = 0;
+        for (FriendNode node = user.getFriendsListHead(); node != null; node = node.next) {
+            into[i++] = node.friend.getUserId();
+        }
+        Arrays.sort(into, 0, count);
+        return into;
+    }
+
+    public long getTriangleCount() {
+        return triangles().totalTriangles();
+    }
+
+    // Triangles the user is part of, i.e. friendships among the user's friends.
+    public int getUserTriangleCount(int userId) {
+        User user = findUserById(userId);
+        return (user != null) ? userTriangles(user) : 0;
+    }
+
+    // Local clustering coefficient in [0, 1]; 0 for unknown users and users with fewer than 2 friends.
+    public double getClusteringCoefficient(int userId) {
+        User user = findUserById(userId);
+        return (user != null) ? TriangleCounter.clustering(user.getFriendCount(), userTriangles(user)) : 0.0;
+    }
+
+    public double getAverageClusteringCoefficient() {
+        return triangles().averageClustering();
+    }
+
+    public double getGlobalClusteringCoefficient() {
+        return triangles().globalClustering();
+    }
+
+    // --- Influence ---
+
+    // PageRank over friendships (both directions) and shares (recipient -> creator), computed in
+    // parallel. Scores sum to 1; result.scoreOf(userId) is 0 for unknown users.
+    public InfluenceRank.Result computeInfluenceScores(double damping, double tolerance, int maxIterations) {
+        return new InfluenceRank(getFriendshipGraph(), userListHead)
+                .compute(damping, tolerance, maxIterations, ForkJoinPool.commonPool());
+    }
+
+    public InfluenceRank.Result computeInfluenceScores() {
+        return computeInfluenceScores(InfluenceRank.DEFAULT_DAMPING, InfluenceRank.DEFAULT_TOLERANCE,
+                InfluenceRank.DEFAULT_MAX_ITERATIONS);
+    }
+
+    public String getInfluenceReport(int n) {
+        InfluenceRank.Result result = computeInfluenceScores();
+        FriendshipGraph graph = result.getGraph();
+        StringBuilder report = new StringBuilder();
+        report.append("--- Top ").append(n).append(" Most Influential Users Report ---\n");
+        report.append("(PageRank over friendships and shares, damping ").append(InfluenceRank.DEFAULT_DAMPING)
+                .append(", ").append(result.getIterations()).append(" iterations")
+                .append(result.isConverged() ? "" : ", not converged").append(")\n");
+        int[] top = result.top(n);
+        if (top.length == 0) {
+            report.append("No users in the network.\n");
+        }
+        for (int rank = 0; rank < top.length; rank++) {
+            User user = findUserById(graph.userIdAt(top[rank]));
+            report.append(" ").append(rank + 1).append(". ").append(user.getName())
+                    .append(" (ID: ").append(user.getUserId()).append("): influence ")
+                    .append(String.format("%.6f", result.scoreAt(top[rank]))).append("\n");
+        }
+        report.append("------------------------------------------\n");
+        return report.toString();
+    }
+
     public String getPostsCreatedByUserReport(int userId) {
         User user = findUserById(userId);
         if (user == null) {
             return "User ID " + userId + " not found.";
         }
+        String cached = viewCache.get(ViewCache.POSTS_CREATED, userId, 0);
+        if (cached != null) {
+            return cached;
+        }
 
         StringBuilder report = new StringBuilder();
         report.append("--- Posts Created by ").append(user.getName())
@@ -639,7 +1492,9 @@ class SocialNetwork {
             }
         }
         report.append("------------------------------------------\n");
-        return report.toString();
+        String view = report.toString();
+        viewCache.put(ViewCache.POSTS_CREATED, userId, 0, view);
+        return view;
     }
 
     public String getPostsSharedWithUserReport(int userId) {
@@ -647,6 +1502,10 @@ class SocialNetwork {
         if (user == null) {
             return "User ID " + userId + " not found.";
         }
+        String cached = viewCache.get(ViewCache.POSTS_SHARED, userId, 0);
+        if (cached != null) {
+            return cached;
+        }
         StringBuilder report = new StringBuilder();
         report.append("--- Posts Shared with ").append(user.getName())
                 .append(" (ID: ").append(userId).append(") ---\n");
@@ -657,7 +1516,7 @@ class SocialNetwork {
         } else {
             while (current != null) {
                 Post post = current.post;
-                User creator = findUserById(post.getCreatorId());
+                User creator = post.getCreator();
                 String creatorName = (creator != null) ? creator.getName() : "Unknown";
                 report.append("Post ID: ").append(post.getPostId())
                         .append(", Content: \"").append(post.getContent()).append("\"")
@@ -668,7 +1527,9 @@ class SocialNetwork {
             }
         }
         report.append("------------------------------------------\n");
-        return report.toString();
+        String view = report.toString();
+        viewCache.put(ViewCache.POSTS_SHARED, userId, 0, view);
+        return view;
     }
 
     public String getEngagementMetricsReport(int userId) {
@@ -676,34 +1537,48 @@ class SocialNetwork {
         if (user == null) {
             return "User ID " + userId + " not found.";
         }
+        String cached = viewCache.get(ViewCache.ENGAGEMENT, userId, 0);
+        if (cached != null) {
+            return cached;
+        }
         StringBuilder report = new StringBuilder();
         report.append("--- Engagement Metrics for ").append(user.getName()).append(" ---\n");
-        report.append("Posts Created: ").append(user.countCreatedPosts()).append("\n");
+        int created = user.countCreatedPosts();
+        report.append("Friends: ").append(user.getFriendCount()).append("\n");
+        report.append("Posts Created: ").append(created).append("\n");
         report.append("Posts Shared With User: ").append(user.countSharedPosts()).append("\n");
+        report.append("Shares Made (recipients of own posts): ").append(user.getSharesMade()).append("\n");
+        report.append("Average Shares per Post: ")
+                .append((created == 0) ? "0.00" : String.format("%.2f", (double) user.getSharesMade() / created)).append("\n");
+        report.append("Reach (own posts + deliveries to others): ").append(created + user.getSharesMade()).append("\n");
+        int userTriangles = userTriangles(user);
+        report.append("Friend Triangles: ").append(userTriangles).append("\n");
+        report.append("Clustering Coefficient: ")
+                .append(String.format("%.3f", TriangleCounter.clustering(user.getFriendCount(), userTriangles))).append("\n");
         report.append("------------------------------------------\n");
-        return report.toString();
+        String view = report.toString();
+        viewCache.put(ViewCache.ENGAGEMENT, userId, 0, view);
+        return view;
     }
 
     public String getMostActiveUsersReport(int n) {
         StringBuilder report = new StringBuilder();
         report.append("--- Top ").append(n).append(" Most Active Users Report ---\n");
-        report.append("(Simplified: Showing total created posts per user)\n");
-        UserNode current = userListHead;
-        if (current == null) {
+        report.append("(Activity = posts created + shares made)\n");
+        User[] top = activityRanking.top(n);
+        if (top.length == 0) {
             report.append("No users in the network.\n");
-        } else {
-            int count = 0;
-            while(current != null && count < n) {
-                report.append(" - ").append(current.user.getName())
-                        .append(": ").append(current.user.countCreatedPosts()).append(" posts created\n");
-                current = current.next;
-                count++;
-            }
-            if (count == 0) {
-                report.append("No users found to report on.\n");
-            }
+        }
+        for (int rank = 0; rank < top.length; rank++) {
+            report.append(formatActivityLine(rank + 1, top[rank])).append('\n');
         }
         report.append("------------------------------------------\n");
         return report.toString();
     }
+
+    private String formatActivityLine(int rank, User user) {
+        int created = user.countCreatedPosts();
+        return " " + rank + ". " + user.getName() + " (ID: " + user.getUserId() + "): "
+                + created + " posts created, " + user.getSharesMade() + " shares made, activity " + activityRanking.scoreOf(user);
+    }
 }
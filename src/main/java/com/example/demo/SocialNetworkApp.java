@@ -37,6 +37,7 @@ public class SocialNetworkApp extends Application {
     private TableView<Post> postsSharedTable;
 
     private Button btnLoad, btnPrev, btnNext;
+    private Button btnSaveSnapshot, btnLoadSnapshot;
     private Button btnAddUser, btnUpdateUser, btnDeleteUser;
     private Button btnSearchId, btnSearchName;
     private TextField tfSearchId, tfSearchName;
@@ -49,6 +50,8 @@ public class SocialNetworkApp extends Application {
     private Button btnCreatePost, btnDeletePost;
 
     private Button btnReportCreated, btnReportShared, btnReportActive, btnReportEngagement;
+    private Button btnReportFeed, btnReportInfluence;
+    private static final int NEWS_FEED_SIZE = 20;
 
     @Override
     public void start(Stage primaryStage) {
@@ -62,7 +65,11 @@ public class SocialNetworkApp extends Application {
         topBox.setPadding(new Insets(5));
         btnLoad = new Button("Load Data Files");
         btnLoad.setOnAction(e -> loadDataFiles(primaryStage));
-        topBox.getChildren().add(btnLoad);
+        btnLoadSnapshot = new Button("Load Snapshot...");
+        btnLoadSnapshot.setOnAction(e -> loadSnapshot(primaryStage));
+        btnSaveSnapshot = new Button("Save Snapshot...");
+        btnSaveSnapshot.setOnAction(e -> saveSnapshot(primaryStage));
+        topBox.getChildren().addAll(btnLoad, btnLoadSnapshot, btnSaveSnapshot);
         root.setTop(topBox);
 
 
@@ -276,7 +283,15 @@ public class SocialNetworkApp extends Application {
         });
         btnReportEngagement = new Button("Show Current User Engagement");
         btnReportEngagement.setOnAction(e -> showEngagementReport());
-        reportOpsBox.getChildren().addAll(btnReportCreated, btnReportShared, btnReportActive, btnReportEngagement);
+        btnReportFeed = new Button("Show Current User News Feed");
+        btnReportFeed.setOnAction(e -> showNewsFeedReport());
+        btnReportInfluence = new Button("Show Top 5 Influential Users");
+        btnReportInfluence.setOnAction(e -> {
+            String reportContent = network.getInfluenceReport(5);
+            showReportDialog("Most Influential Users Report", reportContent);
+        });
+        reportOpsBox.getChildren().addAll(btnReportCreated, btnReportShared, btnReportActive, btnReportEngagement, btnReportFeed,
+                btnReportInfluence);
 
 
         box.getChildren().addAll(userOpsBox, friendOpsBox, postOpsBox, reportOpsBox);
@@ -301,12 +316,18 @@ public class SocialNetworkApp extends Application {
                 if (postsFile != null) {
                     try {
 
+                        network.closeMutationLog();
                         network = new SocialNetwork();
                         currentUserNode = null;
 
                         network.loadUsers(usersFile.getAbsolutePath());
                         network.loadFriendships(friendshipsFile.getAbsolutePath());
-                        network.loadPosts(postsFile.getAbsolutePath());
+                        network.loadPostsParallel(postsFile.getAbsolutePath());
+
+                        // Changes made after loading are kept in a log next to the users file
+                        File logFile = new File(usersFile.getParentFile(), "mutations.log");
+                        network.openMutationLog(logFile.getAbsolutePath(), usersFile.getAbsolutePath(),
+                                friendshipsFile.getAbsolutePath(), postsFile.getAbsolutePath());
 
                         currentUserNode = network.getUserListHead();
                         updateDisplay();
@@ -322,6 +343,39 @@ public class SocialNetworkApp extends Application {
         }
     }
 
+    private void loadSnapshot(Stage ownerStage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Select snapshot file");
+        File snapshotFile = fileChooser.showOpenDialog(ownerStage);
+        if (snapshotFile == null) return;
+
+        SocialNetwork restored = new SocialNetwork();
+        if (restored.loadSnapshot(snapshotFile.getAbsolutePath())) {
+            network.closeMutationLog();
+            network = restored;
+            currentUserNode = network.getUserListHead();
+            updateDisplay();
+            disableControls(currentUserNode == null);
+            showAlert(Alert.AlertType.INFORMATION, "Load Success", "Snapshot loaded successfully.");
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Load Error", "Failed to load snapshot (check console for details).");
+        }
+    }
+
+    private void saveSnapshot(Stage ownerStage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save snapshot as");
+        fileChooser.setInitialFileName("network.snapshot");
+        File snapshotFile = fileChooser.showSaveDialog(ownerStage);
+        if (snapshotFile == null) return;
+
+        if (network.saveSnapshot(snapshotFile.getAbsolutePath())) {
+            showAlert(Alert.AlertType.INFORMATION, "Save Success", "Snapshot saved to " + snapshotFile.getName() + ".");
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Save Error", "Failed to save snapshot (check console for details).");
+        }
+    }
+
     private void navigateUser(boolean forward) {
         if (network.getUserListHead() == null) return;
 
@@ -331,21 +385,7 @@ public class SocialNetworkApp extends Application {
             if (forward) {
                 currentUserNode = (currentUserNode.next != null) ? currentUserNode.next : network.getUserListHead();
             } else {
-
-                UserNode prev = null;
-                UserNode temp = network.getUserListHead();
-                if (temp == currentUserNode) {
-                    while(temp.next != null) {
-                        temp = temp.next;
-                    }
-                    currentUserNode = temp;
-                } else {
-                    while (temp != null && temp.next != currentUserNode) {
-                        temp = temp.next;
-                    }
-                    currentUserNode = temp;
-                    if(currentUserNode == null) currentUserNode = network.getUserListHead();
-                }
+                currentUserNode = (currentUserNode.prev != null) ? currentUserNode.prev : network.getUserListTail();
             }
         }
         updateDisplay();
@@ -354,20 +394,11 @@ public class SocialNetworkApp extends Application {
     private void searchUserById() {
         try {
             int id = Integer.parseInt(tfSearchId.getText().trim());
-            User foundUser = network.findUserById(id);
-            if (foundUser != null) {
-
-                UserNode node = network.getUserListHead();
-                while (node != null && node.user != foundUser) {
-                    node = node.next;
-                }
-                if (node != null) {
-                    currentUserNode = node;
-                    updateDisplay();
-                    tfSearchId.clear();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Search Error", "Internal error: User found but Node not located.");
-                }
+            UserNode node = network.findUserNodeById(id);
+            if (node != null) {
+                currentUserNode = node;
+                updateDisplay();
+                tfSearchId.clear();
             } else {
                 showAlert(Alert.AlertType.WARNING, "Search Result", "User ID " + id + " not found.");
             }
@@ -383,15 +414,25 @@ public class SocialNetworkApp extends Application {
             return;
         }
         User foundUser = network.findUserByName(name);
+        User[] prefixMatches = null;
+        if (foundUser == null) {
+            // No exact match: fall back to names starting with the search text
+            prefixMatches = network.findUsersByNamePrefix(name, 10);
+            if (prefixMatches.length > 0) foundUser = prefixMatches[0];
+        }
         if (foundUser != null) {
-            UserNode node = network.getUserListHead();
-            while (node != null && node.user != foundUser) {
-                node = node.next;
-            }
+            UserNode node = network.findUserNodeById(foundUser.getUserId());
             if (node != null) {
                 currentUserNode = node;
                 updateDisplay();
                 tfSearchName.clear();
+                if (prefixMatches != null && prefixMatches.length > 1) {
+                    StringBuilder names = new StringBuilder();
+                    for (User match : prefixMatches) {
+                        names.append(match.getName()).append(" (ID: ").append(match.getUserId()).append(")\n");
+                    }
+                    showAlert(Alert.AlertType.INFORMATION, "Search Result", "No exact match for '" + name + "'. Showing the first of these matches:\n" + names);
+                }
             } else {
                 showAlert(Alert.AlertType.ERROR, "Search Error", "Internal error: User found but Node not located.");
             }
@@ -706,12 +747,22 @@ public class SocialNetworkApp extends Application {
         showReportDialog("Engagement Metrics for " + currentUserNode.user.getName(), reportContent);
     }
 
+    private void showNewsFeedReport() {
+        if (currentUserNode == null) {
+            showAlert(Alert.AlertType.WARNING, "No User", "No user is currently selected.");
+            return;
+        }
+        String reportContent = network.getNewsFeedReport(currentUserNode.user.getUserId(), NEWS_FEED_SIZE);
+        showReportDialog("News Feed for " + currentUserNode.user.getName(), reportContent);
+    }
+
 
 
 
     private void disableControls(boolean disable) {
         btnPrev.setDisable(disable);
         btnNext.setDisable(disable);
+        btnSaveSnapshot.setDisable(disable);
         tfUserName.setDisable(disable);
         tfUserAge.setDisable(disable);
         btnUpdateUser.setDisable(disable);
@@ -736,6 +787,8 @@ public class SocialNetworkApp extends Application {
         btnReportShared.setDisable(disable);
         btnReportActive.setDisable(disable);
         btnReportEngagement.setDisable(disable);
+        btnReportFeed.setDisable(disable);
+        btnReportInfluence.setDisable(disable);
 
     }
 
@@ -807,6 +860,12 @@ public class SocialNetworkApp extends Application {
     }
 
 
+    @Override
+    public void stop() {
+        network.closeMutationLog(); // commit any mutations still waiting for the next group commit
+    }
+
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,109 @@
+package com.example.demo;
+
+// Intersection of sorted, duplicate-free int ranges (e.g. FriendshipGraph neighbor rows).
+//
+// Ranges of similar size are merged in O(a + b). When one range is much smaller, each of its
+// elements is located in the larger one by galloping (exponential then binary search), which is
+// O(a log(b / a)). Bitset variants cover ranges tested against a dense set, such as a hub vertex.
+final class SortedIntSets {
+    private static final int GALLOP_RATIO = 32;
+
+    private SortedIntSets() {}
+
+    // Size of the intersection of a[aFrom, aTo) and b[bFrom, bTo).
+    static int intersectionSize(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo) {
+        return intersect(a, aFrom, aTo, b, bFrom, bTo, null);
+    }
+
+    // Writes the intersection of a[aFrom, aTo) and b[bFrom, bTo) to 'out' in ascending order (if out is not null)
+    // and returns its size. 'out' needs room for the smaller range.
+    static int intersect(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out) {
+        int aLength = aTo - aFrom, bLength = bTo - bFrom;
+        if (aLength == 0 || bLength == 0) return 0;
+        if (aLength > bLength) {
+            return intersect(b, bFrom, bTo, a, aFrom, aTo, out);
+        }
+        if (bLength / aLength >= GALLOP_RATIO) {
+            return gallop(a, aFrom, aTo, b, bFrom, bTo, out);
+        }
+        return merge(a, aFrom, aTo, b, bFrom, bTo, out);
+    }
+
+    private static int merge(int[] a, int i, int aTo, int[] b, int j, int bTo, int[] out) {
+        int count = 0;
+        while (i < aTo && j < bTo) {
+            int x = a[i], y = b[j];
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                if (out != null) out[count] = x;
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    // 'a' is the small range; each element is searched in what is left of 'b'.
+    private static int gallop(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out) {
+        int count = 0;
+        int low = bFrom;
+        for (int i = aFrom; i < aTo && low < bTo; i++) {
+            int x = a[i];
+            // Exponential search for the first b[pos] >= x
+            int step = 1;
+            int high = low;
+            while (high < bTo && b[high] < x) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            if (high > bTo) high = bTo;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (b[mid] < x) low = mid + 1;
+                else high = mid;
+            }
+            if (low < bTo && b[low] == x) {
+                if (out != null) out[count] = x;
+                count++;
+                low++;
+            }
+        }
+        return count;
+    }
+
+    // --- Bitsets ---
+
+    static long[] toBitset(int[] values, int from, int to, int universe) {
+        long[] bits = new long[(universe + 63) >>> 6];
+        for (int i = from; i < to; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    // Elements of values[from, to) that are in 'bits', written ascending to 'out' (if not null).
+    static int intersect(long[] bits, int[] values, int from, int to, int[] out) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int v = values[i];
+            if ((bits[v >>> 6] & (1L << v)) != 0) {
+                if (out != null) out[count] = v;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int intersectionSize(long[] x, long[] y) {
+        int count = 0;
+        for (int w = 0; w < x.length; w++) {
+            count += Long.bitCount(x[w] & y[w]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.demo;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Inverted index over post content: term -> sorted post IDs.
+//
+// Content is split into runs of letters and digits and lower-cased. Each posting list stores its
+// IDs in blocks of BLOCK_SIZE: the first ID of a block is kept uncompressed in a skip array and the
+// rest as varint gaps, so a list takes a byte or two per post and a membership probe decodes at
+// most one block. New IDs are normally the largest yet and are appended; out-of-order additions
+// and removals wait in small sorted side arrays until they amount to an eighth of the list, when
+// the list is re-encoded. AND queries walk the shortest list and probe the others; OR queries merge.
+// Neither depends on how many posts are indexed, only on the lengths of the lists involved.
+class TextIndex {
+    private static final int BLOCK_SIZE = 128;
+    private static final int[] NO_IDS = new int[0];
+
+    private static final class PostingList {
+        byte[] data = new byte[16];      // varint gaps; block b starts at blockOffsets[b] with its second ID
+        int dataLength;
+        int[] blockFirst = new int[4];   // first ID of every block
+        int[] blockOffsets = new int[4];
+        int encoded;                     // IDs in data, including the block heads
+        int last = Integer.MIN_VALUE;    // largest encoded ID
+
+        int[] added = NO_IDS;            // sorted IDs below 'last' not yet encoded
+        int addedCount;
+        int[] removed = NO_IDS;          // sorted encoded IDs that no longer match
+        int removedCount;
+
+        int size() { return encoded + addedCount - removedCount; }
+
+        void add(int id) {
+            int r = Arrays.binarySearch(removed, 0, removedCount, id);
+            if (r >= 0) {
+                removedCount = deleteAt(removed, removedCount, r);
+            } else if (id > last) {
+                append(id);
+            } else {
+                int i = Arrays.binarySearch(added, 0, addedCount, id);
+                if (i >= 0 || encodedContains(id)) return;
+                added = insertAt(added, addedCount++, -(i + 1), id);
+                compactIfNeeded();
+            }
+        }
+
+        void remove(int id) {
+            int i = Arrays.binarySearch(added, 0, addedCount, id);
+            if (i >= 0) {
+                addedCount = deleteAt(added, addedCount, i);
+            } else if (encodedContains(id)) {
+                int r = Arrays.binarySearch(removed, 0, removedCount, id);
+                if (r >= 0) return;
+                removed = insertAt(removed, removedCount++, -(r + 1), id);
+                compactIfNeeded();
+            }
+        }
+
+        boolean contains(int id) {
+            if (Arrays.binarySearch(added, 0, addedCount, id) >= 0) return true;
+            return encodedContains(id) && Arrays.binarySearch(removed, 0, removedCount, id) < 0;
+        }
+
+        private void append(int id) {
+            if (encoded % BLOCK_SIZE == 0) {
+                int block = encoded / BLOCK_SIZE;
+                if (block == blockFirst.length) {
+                    blockFirst = Arrays.copyOf(blockFirst, block * 2);
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                }
+                blockFirst[block] = id;
+                blockOffsets[block] = dataLength;
+            } else {
+                if (dataLength + 5 > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + 5));
+                int gap = id - last;
+                while ((gap & ~0x7F) != 0) {
+                    data[dataLength++] = (byte) ((gap & 0x7F) | 0x80);
+                    gap >>>= 7;
+                }
+                data[dataLength++] = (byte) gap;
+            }
+            encoded++;
+            last = id;
+        }
+
+        // Binary search over block heads, then decode one block.
+        private boolean encodedContains(int id) {
+            if (encoded == 0 || id > last || id < blockFirst[0]) return false;
+            int lo = 0, hi = (encoded - 1) / BLOCK_SIZE;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (blockFirst[mid] <= id) lo = mid;
+                else hi = mid - 1;
+            }
+            int current = blockFirst[lo];
+            int end = Math.min(encoded - lo * BLOCK_SIZE, BLOCK_SIZE);
+            int pos = blockOffsets[lo];
+            for (int k = 1; k < end && current < id; k++) {
+                int gap = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[pos++];
+                    gap |= (b & 0x7F) << shift;
+                    if (b >= 0) break;
+                }
+                current += gap;
+            }
+            return current == id;
+        }
+
+        // All matching IDs, ascending.
+        int[] toArray() {
+            int[] ids = new int[size()];
+            int n = 0, a = 0, r = 0;
+            int pos = 0;
+            int current = 0;
+            for (int k = 0; k < encoded; k++) {
+                if (k % BLOCK_SIZE == 0) {
+                    current = blockFirst[k / BLOCK_SIZE];
+                } else {
+                    int gap = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte b = data[pos++];
+                        gap |= (b & 0x7F) << shift;
+                        if (b >= 0) break;
+                    }
+                    current += gap;
+                }
+                if (r < removedCount && removed[r] == current) {
+                    r++;
+                    continue;
+                }
+                while (a < addedCount && added[a] < current) ids[n++] = added[a++];
+                ids[n++] = current;
+            }
+            while (a < addedCount) ids[n++] = added[a++];
+            return ids;
+        }
+
+        private void compactIfNeeded() {
+            if (addedCount + removedCount <= Math.max(16, encoded / 8)) return;
+            int[] ids = toArray();
+            dataLength = 0;
+            encoded = 0;
+            last = Integer.MIN_VALUE;
+            addedCount = 0;
+            removedCount = 0;
+            added = NO_IDS;
+            removed = NO_IDS;
+            for (int id : ids) append(id);
+        }
+
+        private static int[] insertAt(int[] array, int count, int at, int value) {
+            if (count == array.length) array = Arrays.copyOf(array, Math.max(4, count * 2));
+            System.arraycopy(array, at, array, at + 1, count - at);
+            array[at] = value;
+            return array;
+        }
+
+        private static int deleteAt(int[] array, int count, int at) {
+            System.arraycopy(array, at + 1, array, at, count - at - 1);
+            return count - 1;
+        }
+    }
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    // Distinct lower-cased letter/digit runs of the text, in order of first appearance.
+    static Collection<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) return terms;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            }
+        }
+        return terms;
+    }
+
+    public void add(Post post) {
+        for (String term : tokenize(post.getContent())) {
+            postings.computeIfAbsent(term, t -> new PostingList()).add(post.getPostId());
+        }
+    }
+
+    public void remove(Post post) {
+        for (String term : tokenize(post.getContent())) {
+            PostingList list = postings.get(term);
+            if (list == null) continue;
+            list.remove(post.getPostId());
+            if (list.size() == 0) postings.remove(term);
+        }
+    }
+
+    // IDs of posts containing every term of the query (matchAll) or any of them, ascending.
+    public int[] search(String query, boolean matchAll) {
+        Collection<String> terms = tokenize(query);
+        if (terms.isEmpty()) return NO_IDS;
+        PostingList[] lists = new PostingList[terms.size()];
+        int i = 0;
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null && matchAll) return NO_IDS;
+            lists[i++] = list;
+        }
+        return matchAll ? searchAll(lists) : searchAny(lists);
+    }
+
+    // Candidates come from the shortest list; each is probed in the others.
+    private static int[] searchAll(PostingList[] lists) {
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        int[] candidates = lists[0].toArray();
+        int n = 0;
+        for (int id : candidates) {
+            boolean everywhere = true;
+            for (int i = 1; i < lists.length && everywhere; i++) {
+                everywhere = lists[i].contains(id);
+            }
+            if (everywhere) candidates[n++] = id;
+        }
+        return (n == candidates.length) ? candidates : Arrays.copyOf(candidates, n);
+    }
+
+    private static int[] searchAny(PostingList[] lists) {
+        int[] result = NO_IDS;
+        for (PostingList list : lists) {
+            if (list != null) result = union(result, list.toArray());
+        }
+        return result;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) return b;
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) out[n++] = a[i++];
+            else if (a[i] > b[j]) out[n++] = b[j++];
+            else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) out[n++] = a[i++];
+        while (j < b.length) out[n++] = b[j++];
+        return (n == out.length) ? out : Arrays.copyOf(out, n);
+    }
+}
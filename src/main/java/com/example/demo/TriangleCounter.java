@@ -0,0 +1,187 @@
+package com.example.demo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Triangles and clustering coefficients of a FriendshipGraph.
+//
+// Every edge is oriented from the lower to the higher (degree, index) rank, so each vertex keeps
+// only its higher-ranked neighbors and hubs end up with short forward rows (O(sqrt E) each).
+// A triangle v < u < w is then found exactly once, at v, by intersecting the sorted forward rows
+// of v and u. The vertices are split into a few chunks per worker, counted in parallel. A chunk
+// borrows an int[] accumulator from a shared pool for as long as it runs and credits the three
+// corners of its triangles there (no shared writes, so a hub corner is not a contended counter).
+// A thread holds at most one accumulator at a time, so the pool never grows beyond the number of
+// threads counting at once; the accumulators are summed at the end.
+class TriangleCounter {
+    private static final int MIN_CHUNK_VERTICES = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    // Local clustering coefficient of a vertex with the given degree and triangle count.
+    static double clustering(long degree, long triangles) {
+        return (degree < 2) ? 0.0 : 2.0 * triangles / (degree * (degree - 1));
+    }
+
+    static final class Result {
+        private final FriendshipGraph graph;
+        private final int[] triangles; // per dense index
+        private final long total;
+
+        Result(FriendshipGraph graph, int[] triangles, long total) {
+            this.graph = graph;
+            this.triangles = triangles;
+            this.total = total;
+        }
+
+        public FriendshipGraph getGraph() { return graph; }
+
+        public long totalTriangles() { return total; }
+
+        public int trianglesAt(int index) { return triangles[index]; }
+
+        // Fraction of pairs of the vertex's friends that are friends themselves (0 below degree 2).
+        public double clusteringAt(int index) {
+            return clustering(graph.degree(index), triangles[index]);
+        }
+
+        // Mean local coefficient over all users.
+        public double averageClustering() {
+            int n = graph.vertexCount();
+            if (n == 0) return 0.0;
+            double sum = 0;
+            for (int v = 0; v < n; v++) sum += clusteringAt(v);
+            return sum / n;
+        }
+
+        // 3 * triangles / connected triples (transitivity).
+        public double globalClustering() {
+            long triples = 0;
+            for (int v = 0, n = graph.vertexCount(); v < n; v++) {
+                long degree = graph.degree(v);
+                triples += degree * (degree - 1) / 2;
+            }
+            return (triples == 0) ? 0.0 : 3.0 * total / triples;
+        }
+    }
+
+    private final FriendshipGraph graph;
+    private final int[] forwardOffsets; // higher-ranked neighbors of v: forward[forwardOffsets[v] .. forwardOffsets[v+1]), by index
+    private final int[] forward;
+
+    TriangleCounter(FriendshipGraph graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        forwardOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            for (int p = graph.neighborStart(v); p < graph.neighborEnd(v); p++) {
+                if (ranksBelow(v, graph.neighborAt(p))) count++;
+            }
+            forwardOffsets[v + 1] = forwardOffsets[v] + count;
+        }
+        forward = new int[forwardOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            int write = forwardOffsets[v];
+            for (int p = graph.neighborStart(v); p < graph.neighborEnd(v); p++) {
+                int u = graph.neighborAt(p);
+                if (ranksBelow(v, u)) forward[write++] = u; // rows stay sorted by index
+            }
+        }
+    }
+
+    private boolean ranksBelow(int a, int b) {
+        int degreeA = graph.degree(a), degreeB = graph.degree(b);
+        return degreeA != degreeB ? degreeA < degreeB : a < b;
+    }
+
+    public Result count(ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        int[] triangles = new int[n];
+        if (n == 0) return new Result(graph, triangles, 0);
+
+        int chunks = Math.max(1, Math.min(n / MIN_CHUNK_VERTICES, pool.getParallelism() * CHUNKS_PER_WORKER));
+        Accumulators accumulators = new Accumulators(n);
+        long total = pool.invoke(new CountTask(0, chunks, chunks, accumulators));
+        for (int[] partial : accumulators.all) {
+            for (int v = 0; v < n; v++) triangles[v] += partial[v];
+        }
+        return new Result(graph, triangles, total);
+    }
+
+    // Per-vertex int[] counters handed out to running chunks and taken back when they finish.
+    private static final class Accumulators {
+        private final int size;
+        private final ArrayDeque<int[]> free = new ArrayDeque<>();
+        private final List<int[]> all = new ArrayList<>();
+
+        Accumulators(int size) {
+            this.size = size;
+        }
+
+        synchronized int[] take() {
+            int[] counts = free.poll();
+            if (counts == null) {
+                counts = new int[size];
+                all.add(counts);
+            }
+            return counts;
+        }
+
+        synchronized void give(int[] counts) {
+            free.push(counts);
+        }
+    }
+
+    // Counts the triangles whose lowest-ranked corner lies in chunks [fromChunk, toChunk); returns how many.
+    private final class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int fromChunk, toChunk, chunks;
+        private final Accumulators accumulators;
+
+        CountTask(int fromChunk, int toChunk, int chunks, Accumulators accumulators) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.chunks = chunks;
+            this.accumulators = accumulators;
+        }
+
+        @Override
+        protected Long compute() {
+            if (toChunk - fromChunk == 1) {
+                int n = graph.vertexCount();
+                int from = (int) ((long) fromChunk * n / chunks), to = (int) ((long) toChunk * n / chunks);
+                int[] counts = accumulators.take();
+                long found = 0;
+                int[] common = null;
+                for (int v = from; v < to; v++) {
+                    int vStart = forwardOffsets[v], vEnd = forwardOffsets[v + 1];
+                    if (vEnd - vStart < 2) continue;
+                    if (common == null || common.length < vEnd - vStart) common = new int[vEnd - vStart];
+                    int atV = 0;
+                    for (int p = vStart; p < vEnd; p++) {
+                        int u = forward[p];
+                        int k = SortedIntSets.intersect(forward, vStart, vEnd,
+                                forward, forwardOffsets[u], forwardOffsets[u + 1], common);
+                        if (k == 0) continue;
+                        atV += k;
+                        counts[u] += k;
+                        for (int i = 0; i < k; i++) counts[common[i]]++;
+                    }
+                    counts[v] += atV;
+                    found += atV;
+                }
+                accumulators.give(counts);
+                return found;
+            }
+            int mid = (fromChunk + toChunk) >>> 1;
+            CountTask left = new CountTask(fromChunk, mid, chunks, accumulators);
+            left.fork();
+            long right = new CountTask(mid, toChunk, chunks, accumulators).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -7,6 +7,14 @@ class User {
     FriendNode friendsListHead;
     PostNode postsCreatedHead;
     PostNode postsSharedWithMeHead;
+    // List lengths kept up to date by the add/remove methods, so counts are O(1)
+    int friendCount;
+    int createdPostCount;
+    int sharedPostCount;
+    int sharesMade;       // recipients across this user's own posts, maintained by SocialNetwork
+    final PostTimeline timeline = new PostTimeline(); // own posts by date, kept by SocialNetwork
+    int activitySlot = -1; // position in SocialNetwork's ActivityRanking heap, -1 when not ranked
+    int componentSlot = -1; // slot in SocialNetwork's FriendComponents union-find
 
     public User(int userId, String name, int age) {
         this.userId = userId;
@@ -24,6 +32,9 @@ class User {
     public FriendNode getFriendsListHead() { return friendsListHead; }
     public PostNode getPostsCreatedHead() { return postsCreatedHead; }
     public PostNode getPostsSharedWithMeHead() { return postsSharedWithMeHead; }
+    public int getFriendCount() { return friendCount; }
+    public int getSharesMade() { return sharesMade; }
+    public PostTimeline getTimeline() { return timeline; }
 
     // --- Setters ---
     public void setAge(int age) { this.age = age; }
@@ -48,6 +59,7 @@ class User {
         FriendNode newFriendNode = new FriendNode(friendUser);
         newFriendNode.next = friendsListHead;
         friendsListHead = newFriendNode;
+        friendCount++;
     }
 
     public boolean removeFriend(int friendId) {
@@ -58,6 +70,7 @@ class User {
         // Handle head removal
         if (friendsListHead.friend.getUserId() == friendId) {
             friendsListHead = friendsListHead.next;
+            friendCount--;
             return true;
         }
 
@@ -66,6 +79,7 @@ class User {
         while (current.next != null) {
             if (current.next.friend.getUserId() == friendId) {
                 current.next = current.next.next; // Bypass the node
+                friendCount--;
                 return true;
             }
             current = current.next;
@@ -79,28 +93,28 @@ class User {
         if (post == null) return;
         PostNode newNode = new PostNode(post);
         newNode.next = postsCreatedHead;
+        if (postsCreatedHead != null) postsCreatedHead.prev = newNode;
         postsCreatedHead = newNode;
+        post.createdNode = newNode;
+        createdPostCount++;
     }
 
-    public boolean removeCreatedPost(int postId) {
-        if (postsCreatedHead == null) return false;
-
-        if (postsCreatedHead.post.getPostId() == postId) {
-            postsCreatedHead = postsCreatedHead.next;
-            return true;
-        }
-
-        PostNode current = postsCreatedHead;
-        while (current.next != null) {
-            if (current.next.post.getPostId() == postId) {
-                current.next = current.next.next;
-                return true;
-            }
-            current = current.next;
-        }
-        return false;
+    // Unlinks the post through its own node handle in O(1); false if it is not on this user's list.
+    public boolean removeCreatedPost(Post post) {
+        PostNode node = post.createdNode;
+        if (node == null || node.post != post) return false;
+        if (node.prev != null) node.prev.next = node.next;
+        else postsCreatedHead = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        post.createdNode = null;
+        createdPostCount--;
+        return true;
     }
 
+    // Call after Post.addSharedUser(this): the new node is paired with this user's entry in the
+    // post's share list, so either side can later be unlinked from the other in O(1).
     public void addSharedPost(Post post) {
         if (post == null) return;
 
@@ -115,26 +129,31 @@ class User {
 
         PostNode newNode = new PostNode(post);
         newNode.next = postsSharedWithMeHead;
+        if (postsSharedWithMeHead != null) postsSharedWithMeHead.prev = newNode;
         postsSharedWithMeHead = newNode;
-    }
+        sharedPostCount++;
 
-    public boolean removeSharedPost(int postId) {
-        if (postsSharedWithMeHead == null) return false;
-
-        if (postsSharedWithMeHead.post.getPostId() == postId) {
-            postsSharedWithMeHead = postsSharedWithMeHead.next;
-            return true;
+        for (SharedUserNode share = post.getSharedWithListHead(); share != null; share = share.next) {
+            if (share.sharedUser == this) {
+                share.sharedPostNode = newNode;
+                newNode.share = share;
+                break;
+            }
         }
+    }
 
-        PostNode current = postsSharedWithMeHead;
-        while (current.next != null) {
-            if (current.next.post.getPostId() == postId) {
-                current.next = current.next.next;
-                return true;
-            }
-            current = current.next;
+    // Unlinks a node of this user's postsSharedWithMe list in O(1).
+    public void removeSharedPost(PostNode node) {
+        if (node.prev != null) node.prev.next = node.next;
+        else postsSharedWithMeHead = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        if (node.share != null) {
+            node.share.sharedPostNode = null;
+            node.share = null;
         }
-        return false;
+        sharedPostCount--;
     }
 
 
@@ -145,22 +164,10 @@ class User {
 
 
     public int countCreatedPosts() {
-        int count = 0;
-        PostNode current = postsCreatedHead;
-        while(current != null) {
-            count++;
-            current = current.next;
-        }
-        return count;
+        return createdPostCount;
     }
     public int countSharedPosts() {
-        int count = 0;
-        PostNode current = postsSharedWithMeHead;
-        while(current != null) {
-            count++;
-            current = current.next;
-        }
-        return count;
+        return sharedPostCount;
     }
 }
 
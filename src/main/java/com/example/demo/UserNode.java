@@ -3,9 +3,11 @@ package com.example.demo;
 class UserNode {
     User user;
     UserNode next;
+    UserNode prev;
 
     UserNode(User user) {
         this.user = user;
         this.next = null;
+        this.prev = null;
     }
 }
@@ -0,0 +1,281 @@
+package com.example.demo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+// Produces the users of a report in a ReportOrder.
+//
+// When the sort working set fits the memory budget, users are sorted in memory as an int[] of
+// list positions keyed by primitive arrays (IDs, post counts) or by the users' own names.
+// Otherwise the list is cut into budget-sized runs that are sorted and spilled to temp files as
+// (key, position, user ID) records, and the runs are k-way merged back while the report is written.
+// Both paths order ties by list position, so the result is the same either way.
+class UserSorter {
+    private static final int BYTES_PER_ENTRY = 24;       // User ref + position + merge scratch + key
+    private static final int RUN_BUFFER_SIZE = 1 << 16;
+
+    public static ReportWriter.UserSource sorted(UserNode head, int userCount, ReportOrder order,
+                                                 long memoryBudget, IntFunction<User> findUser) throws IOException {
+        if (order == ReportOrder.INSERTION) {
+            return ReportWriter.fromList(head);
+        }
+        int runLength = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, memoryBudget / BYTES_PER_ENTRY));
+        if (userCount <= runLength) {
+            return inMemory(head, userCount, order);
+        }
+        return external(head, order, runLength, findUser);
+    }
+
+    // --- In-memory sort ---
+
+    private static ReportWriter.UserSource inMemory(UserNode head, int userCount, ReportOrder order) {
+        User[] users = new User[userCount];
+        int n = 0;
+        for (UserNode node = head; node != null && n < userCount; node = node.next) {
+            users[n++] = node.user;
+        }
+        int[] positions = sortRun(users, 0, n, order);
+
+        return new ReportWriter.UserSource() {
+            private int next;
+
+            @Override
+            public int next(User[] into, int max) {
+                int count = Math.min(max, positions.length - next);
+                for (int i = 0; i < count; i++) {
+                    into[i] = users[positions[next++]];
+                }
+                return count;
+            }
+        };
+    }
+
+    // Sorts users[from, to) and returns their indices in order. Ties keep index order.
+    private static int[] sortRun(User[] users, int from, int to, ReportOrder order) {
+        int n = to - from;
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) positions[i] = from + i;
+
+        int[] keys = null;
+        if (order != ReportOrder.NAME) {
+            keys = new int[to];
+            for (int i = from; i < to; i++) keys[i] = key(users[i], order);
+        }
+        mergeSort(positions, new int[n], 0, n, users, keys);
+        return positions;
+    }
+
+    private static int key(User user, ReportOrder order) {
+        return (order == ReportOrder.ID) ? user.getUserId() : -user.countCreatedPosts();
+    }
+
+    private static void mergeSort(int[] a, int[] scratch, int from, int to, User[] users, int[] keys) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int value = a[i];
+                int j = i - 1;
+                while (j >= from && compare(a[j], value, users, keys) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, scratch, from, mid, users, keys);
+        mergeSort(a, scratch, mid, to, users, keys);
+        if (compare(a[mid - 1], a[mid], users, keys) <= 0) return;
+
+        System.arraycopy(a, from, scratch, from, to - from);
+        int left = from, right = mid, out = from;
+        while (left < mid && right < to) {
+            a[out++] = (compare(scratch[right], scratch[left], users, keys) < 0) ? scratch[right++] : scratch[left++];
+        }
+        while (left < mid) a[out++] = scratch[left++];
+        while (right < to) a[out++] = scratch[right++];
+    }
+
+    private static int compare(int p, int q, User[] users, int[] keys) {
+        int c = (keys != null)
+                ? Integer.compare(keys[p], keys[q])
+                : String.CASE_INSENSITIVE_ORDER.compare(users[p].getName(), users[q].getName());
+        return (c != 0) ? c : Integer.compare(p, q);
+    }
+
+    // --- External merge sort ---
+
+    private static ReportWriter.UserSource external(UserNode head, ReportOrder order, int runLength,
+                                                    IntFunction<User> findUser) throws IOException {
+        File[] runs = new File[4];
+        int runCount = 0;
+        User[] buffer = new User[runLength];
+        int position = 0;
+        UserNode node = head;
+        try {
+            while (node != null) {
+                int n = 0;
+                while (node != null && n < runLength) {
+                    buffer[n++] = node.user;
+                    node = node.next;
+                }
+                if (runCount == runs.length) {
+                    File[] grown = new File[runCount * 2];
+                    System.arraycopy(runs, 0, grown, 0, runCount);
+                    runs = grown;
+                }
+                runs[runCount++] = spillRun(buffer, n, position, order);
+                position += n;
+            }
+        } catch (IOException e) {
+            deleteRuns(runs, runCount);
+            throw e;
+        }
+        System.out.println("Sorting report users externally in " + runCount + " runs of up to " + runLength + " users.");
+        return new RunMerger(runs, runCount, order, findUser);
+    }
+
+    private static File spillRun(User[] buffer, int n, int basePosition, ReportOrder order) throws IOException {
+        int[] sorted = sortRun(buffer, 0, n, order);
+        File file = File.createTempFile("report-sort-", ".run");
+        file.deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), RUN_BUFFER_SIZE))) {
+            for (int i = 0; i < n; i++) {
+                User user = buffer[sorted[i]];
+                if (order == ReportOrder.NAME) {
+                    byte[] name = user.getName().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(name.length);
+                    out.write(name);
+                } else {
+                    out.writeInt(key(user, order));
+                }
+                out.writeInt(basePosition + sorted[i]);
+                out.writeInt(user.getUserId());
+            }
+        }
+        for (int i = 0; i < n; i++) buffer[i] = null;
+        return file;
+    }
+
+    private static void deleteRuns(File[] runs, int runCount) {
+        for (int i = 0; i < runCount; i++) {
+            if (runs[i] != null && !runs[i].delete()) {
+                System.err.println("Warning: Could not delete temporary sort run " + runs[i] + ".");
+            }
+        }
+    }
+
+    // Head record of one spilled run.
+    private static final class RunReader {
+        final DataInputStream in;
+        final boolean byName;
+        String name;
+        int key;
+        int position;
+        int userId;
+
+        RunReader(File file, boolean byName) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), RUN_BUFFER_SIZE));
+            this.byName = byName;
+        }
+
+        // Loads the next record; false at the end of the run.
+        boolean advance() throws IOException {
+            try {
+                if (byName) {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    name = new String(bytes, StandardCharsets.UTF_8);
+                } else {
+                    key = in.readInt();
+                }
+            } catch (EOFException e) {
+                return false;
+            }
+            position = in.readInt();
+            userId = in.readInt();
+            return true;
+        }
+
+        int compareTo(RunReader other) {
+            int c = byName ? String.CASE_INSENSITIVE_ORDER.compare(name, other.name) : Integer.compare(key, other.key);
+            return (c != 0) ? c : Integer.compare(position, other.position);
+        }
+    }
+
+    // K-way merge of the spilled runs through a min-heap of run readers.
+    private static final class RunMerger implements ReportWriter.UserSource {
+        private final File[] runs;
+        private final int runCount;
+        private final IntFunction<User> findUser;
+        private final RunReader[] heap;
+        private int heapSize;
+
+        RunMerger(File[] runs, int runCount, ReportOrder order, IntFunction<User> findUser) throws IOException {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.findUser = findUser;
+            this.heap = new RunReader[runCount];
+            try {
+                for (int i = 0; i < runCount; i++) {
+                    RunReader reader = new RunReader(runs[i], order == ReportOrder.NAME);
+                    if (reader.advance()) {
+                        heap[heapSize++] = reader;
+                    } else {
+                        reader.in.close();
+                    }
+                }
+                for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(i);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public int next(User[] into, int max) throws IOException {
+            int n = 0;
+            while (n < max && heapSize > 0) {
+                RunReader top = heap[0];
+                User user = findUser.apply(top.userId);
+                if (user != null) into[n++] = user;
+                if (!top.advance()) {
+                    top.in.close();
+                    heap[0] = heap[--heapSize];
+                    heap[heapSize] = null;
+                }
+                if (heapSize > 0) siftDown(0);
+            }
+            return n;
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= heapSize) return;
+                int smallest = (left + 1 < heapSize && heap[left + 1].compareTo(heap[left]) < 0) ? left + 1 : left;
+                if (heap[smallest].compareTo(heap[i]) >= 0) return;
+                RunReader tmp = heap[i];
+                heap[i] = heap[smallest];
+                heap[smallest] = tmp;
+                i = smallest;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (int i = 0; i < heapSize; i++) heap[i].in.close();
+            heapSize = 0;
+            deleteRuns(runs, runCount);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo;
+
+// Byte-bounded LRU cache of rendered per-user views (report strings).
+//
+// Entries are keyed by (kind, user ID); each kind has its own IntHashMap, and all entries share one
+// doubly linked recency list, so lookups, inserts, evictions and invalidations are all O(1).
+// An entry may also carry a parameter (e.g. the feed length); a lookup with a different parameter
+// is a miss. SocialNetwork invalidates entries whenever a mutation touches the users they show.
+class ViewCache {
+    static final int POSTS_CREATED = 0;
+    static final int POSTS_SHARED = 1;
+    static final int ENGAGEMENT = 2;
+    static final int NEWS_FEED = 3;
+    private static final int KINDS = 4;
+
+    private static final int ENTRY_OVERHEAD = 96; // entry, map slot and String headers, roughly
+
+    private static final class Entry {
+        final int kind;
+        final int userId;
+        final int param;
+        final String view;
+        final long bytes;
+        Entry prev, next; // recency list, most recent at head
+
+        Entry(int kind, int userId, int param, String view) {
+            this.kind = kind;
+            this.userId = userId;
+            this.param = param;
+            this.view = view;
+            this.bytes = ENTRY_OVERHEAD + 2L * view.length();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final IntHashMap<Entry>[] entries = new IntHashMap[KINDS];
+    private Entry head, tail;
+    private long capacityBytes;
+    private long bytes;
+    private int size;
+    private long hits, misses, evictions, invalidations;
+
+    ViewCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+        for (int kind = 0; kind < KINDS; kind++) {
+            entries[kind] = new IntHashMap<>();
+        }
+    }
+
+    // The cached view, or null on a miss.
+    public String get(int kind, int userId, int param) {
+        Entry entry = entries[kind].get(userId);
+        if (entry == null || entry.param != param) {
+            misses++;
+            return null;
+        }
+        hits++;
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+        return entry.view;
+    }
+
+    public void put(int kind, int userId, int param, String view) {
+        Entry entry = new Entry(kind, userId, param, view);
+        if (entry.bytes > capacityBytes) { // would evict everything else; just drop the stale view
+            invalidate(kind, userId);
+            return;
+        }
+        Entry old = entries[kind].put(userId, entry);
+        if (old != null) {
+            unlink(old);
+            bytes -= old.bytes;
+            size--;
+        }
+        linkFirst(entry);
+        bytes += entry.bytes;
+        size++;
+        evictToCapacity();
+    }
+
+    // Drops one view of a user.
+    public void invalidate(int kind, int userId) {
+        if (size == 0) return;
+        Entry entry = entries[kind].remove(userId);
+        if (entry != null) {
+            remove(entry);
+            invalidations++;
+        }
+    }
+
+    // Drops every view of a user.
+    public void invalidateUser(int userId) {
+        for (int kind = 0; kind < KINDS; kind++) {
+            invalidate(kind, userId);
+        }
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void setCapacityBytes(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+        evictToCapacity();
+    }
+
+    // --- Statistics ---
+
+    public int size() { return size; }
+    public long bytes() { return bytes; }
+    public long capacityBytes() { return capacityBytes; }
+    public long hits() { return hits; }
+    public long misses() { return misses; }
+    public long evictions() { return evictions; }
+    public long invalidations() { return invalidations; }
+
+    @Override
+    public String toString() {
+        long lookups = hits + misses;
+        return "View cache: " + size + " entries, " + bytes + "/" + capacityBytes + " bytes, "
+                + hits + " hits, " + misses + " misses"
+                + (lookups == 0 ? "" : " (" + (100 * hits / lookups) + "% hit rate)")
+                + ", " + evictions + " evictions, " + invalidations + " invalidations";
+    }
+
+    // --- Recency list ---
+
+    private void evictToCapacity() {
+        while (bytes > capacityBytes) {
+            Entry victim = tail;
+            entries[victim.kind].remove(victim.userId);
+            remove(victim);
+            evictions++;
+        }
+    }
+
+    private void remove(Entry entry) {
+        unlink(entry);
+        bytes -= entry.bytes;
+        size--;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) entry.prev.next = entry.next;
+        else head = entry.next;
+        if (entry.next != null) entry.next.prev = entry.prev;
+        else tail = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.next = head;
+        if (head != null) head.prev = entry;
+        else tail = entry;
+        head = entry;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntHashMapTest {
+
+    @Test
+    void removingAnyKeyKeepsTheOthersReachable() {
+        // Dense keys in a small table give long, wrapping probe chains
+        int[] keys = new int[200];
+        for (int i = 0; i < keys.length; i++) keys[i] = i * 16;
+        for (int removed = 0; removed < keys.length; removed++) {
+            IntHashMap<String> map = new IntHashMap<>();
+            for (int key : keys) map.put(key, "v" + key);
+
+            assertEquals("v" + keys[removed], map.remove(keys[removed]));
+            assertNull(map.get(keys[removed]));
+            assertEquals(keys.length - 1, map.size());
+            for (int key : keys) {
+                if (key != keys[removed]) assertEquals("v" + key, map.get(key));
+            }
+        }
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        IntHashMap<Integer> map = new IntHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            int key = random.nextInt(1024) - 512;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, step), map.put(key, step));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -512; key < 512; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void rejectsNullValues() {
+        assertThrows(IllegalArgumentException.class, () -> new IntHashMap<String>().put(1, null));
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MutationLogTest {
+    private static final Path BUNDLED_DATA = Paths.get("src/main/java/com/example/demo");
+
+    @TempDir
+    Path dir;
+
+    private String users, friendships, posts, log;
+
+    @BeforeEach
+    void copyBaseFiles() throws IOException {
+        users = copy("users.txt");
+        friendships = copy("friendships.txt");
+        posts = copy("posts.txt");
+        log = dir.resolve("mutations.log").toString();
+    }
+
+    private String copy(String name) throws IOException {
+        return Files.copy(BUNDLED_DATA.resolve(name), dir.resolve(name)).toString();
+    }
+
+    private SocialNetwork loadBase() {
+        SocialNetwork network = new SocialNetwork();
+        network.loadUsers(users);
+        network.loadFriendships(friendships);
+        network.loadPosts(posts);
+        return network;
+    }
+
+    private SocialNetwork openWithLog() {
+        SocialNetwork network = loadBase();
+        assertTrue(network.openMutationLog(log, users, friendships, posts));
+        return network;
+    }
+
+    // One mutation of every kind the log records.
+    private static void mutate(SocialNetwork network) {
+        assertTrue(network.addUser(100, "Layla", 28));
+        assertTrue(network.addUser(101, "Yousef", 33));
+        assertTrue(network.updateUser(100, "Layla K", 29));
+        assertTrue(network.addFriendship(100, 1));
+        assertTrue(network.addFriendship(101, 2));
+        assertTrue(network.addFriendship(100, 101));
+        assertTrue(network.removeFriendship(1, 2));
+        assertTrue(network.createPost(100, "Logged from the app", "1.4.2025", new int[] {1, 101}));
+        assertTrue(network.createPost(101, "Another post", "2.4.2025", new int[] {100}));
+        assertTrue(network.deletePost(1, 1));
+        assertTrue(network.deleteUser(3));
+    }
+
+    // Users, friends, created posts and their recipients, independent of list order.
+    private static String fingerprint(SocialNetwork network) {
+        List<String> lines = new ArrayList<>();
+        for (UserNode node = network.getUserListHead(); node != null; node = node.next) {
+            User user = node.user;
+            List<Integer> friends = new ArrayList<>();
+            for (FriendNode f = user.getFriendsListHead(); f != null; f = f.next) friends.add(f.friend.getUserId());
+            Collections.sort(friends);
+            lines.add("user " + user.getUserId() + " " + user.getName() + " " + user.getAge() + " " + friends);
+            for (PostNode p = user.getPostsCreatedHead(); p != null; p = p.next) {
+                List<Integer> shared = new ArrayList<>();
+                for (SharedUserNode s = p.post.getSharedWithListHead(); s != null; s = s.next) shared.add(s.sharedUser.getUserId());
+                Collections.sort(shared);
+                lines.add("post " + p.post.getPostId() + " by " + user.getUserId() + " " + p.post.getContent()
+                        + " " + p.post.getCreationDate() + " " + shared);
+            }
+        }
+        Collections.sort(lines);
+        return String.join("\n", lines);
+    }
+
+    @Test
+    void replayReproducesLoggedMutations() {
+        SocialNetwork original = openWithLog();
+        mutate(original);
+        String expected = fingerprint(original);
+        original.closeMutationLog();
+        assertNotEquals(fingerprint(loadBase()), expected);
+
+        SocialNetwork replayed = openWithLog();
+        assertEquals(expected, fingerprint(replayed));
+        replayed.closeMutationLog();
+    }
+
+    @Test
+    void tornTailIsIgnoredAndTruncated() throws IOException {
+        SocialNetwork original = openWithLog();
+        mutate(original);
+        String expected = fingerprint(original);
+        original.closeMutationLog();
+        long validLength = Files.size(Paths.get(log));
+
+        // A record header promising more body than was written, as left by a crash mid-append
+        try (FileChannel channel = FileChannel.open(Paths.get(log), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3, 4, MutationLog.ADD_USER, 0, 0}));
+        }
+
+        SocialNetwork replayed = openWithLog();
+        assertEquals(expected, fingerprint(replayed));
+        assertEquals(validLength, Files.size(Paths.get(log)));
+
+        // Appends continue after the valid prefix and replay again
+        assertTrue(replayed.addUser(102, "Mona", 41));
+        String extended = fingerprint(replayed);
+        replayed.closeMutationLog();
+        SocialNetwork again = openWithLog();
+        assertEquals(extended, fingerprint(again));
+        again.closeMutationLog();
+    }
+
+    @Test
+    void recordWithBadChecksumEndsTheLog() throws IOException {
+        SocialNetwork original = openWithLog();
+        assertTrue(original.addUser(100, "Layla", 28));
+        String afterFirst = fingerprint(original);
+        original.closeMutationLog();
+        long firstRecordEnd = Files.size(Paths.get(log));
+
+        original = openWithLog();
+        assertTrue(original.addUser(101, "Yousef", 33));
+        original.closeMutationLog();
+
+        // Flip the last byte of the second record's body
+        try (FileChannel channel = FileChannel.open(Paths.get(log), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) (last.get(0) ^ 0x5A)).rewind();
+            channel.write(last, channel.size() - 1);
+        }
+
+        SocialNetwork replayed = openWithLog();
+        assertEquals(afterFirst, fingerprint(replayed));
+        assertEquals(firstRecordEnd, Files.size(Paths.get(log)));
+        replayed.closeMutationLog();
+    }
+
+    @Test
+    void recordThatDoesNotDecodeEndsTheLog() throws IOException {
+        SocialNetwork original = openWithLog();
+        assertTrue(original.addUser(100, "Layla", 28));
+        String afterFirst = fingerprint(original);
+        original.closeMutationLog();
+        long firstRecordEnd = Files.size(Paths.get(log));
+
+        // A correctly checksummed ADD_FRIENDSHIP body that is one int short, as from another layout
+        ByteBuffer body = ByteBuffer.allocate(5).put(MutationLog.ADD_FRIENDSHIP).putInt(100);
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        ByteBuffer record = ByteBuffer.allocate(8 + body.capacity())
+                .putInt(body.capacity()).putInt((int) crc.getValue()).put(body.array());
+        try (FileChannel channel = FileChannel.open(Paths.get(log), StandardOpenOption.APPEND)) {
+            channel.write(record.flip());
+        }
+
+        SocialNetwork replayed = openWithLog();
+        assertEquals(afterFirst, fingerprint(replayed));
+        assertEquals(firstRecordEnd, Files.size(Paths.get(log)));
+        replayed.closeMutationLog();
+    }
+
+    @Test
+    void logOfAnotherVersionIsRefusedAndKept() throws IOException {
+        SocialNetwork original = openWithLog();
+        assertTrue(original.addUser(100, "Layla", 28));
+        original.closeMutationLog();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(log), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(MutationLog.VERSION + 1).flip(), 4);
+        }
+        byte[] before = Files.readAllBytes(Paths.get(log));
+
+        SocialNetwork network = loadBase();
+        assertFalse(network.openMutationLog(log, users, friendships, posts));
+        assertArrayEquals(before, Files.readAllBytes(Paths.get(log)));
+    }
+
+    @Test
+    void compactionFoldsTheLogIntoTheBaseFiles() throws IOException {
+        SocialNetwork original = openWithLog();
+        mutate(original);
+        String expected = fingerprint(original);
+        assertTrue(original.compactMutationLog());
+        assertEquals(MutationLog.FILE_HEADER, Files.size(Paths.get(log)));
+
+        // Mutations after compaction are logged against the new base
+        assertTrue(original.addFriendship(2, 4));
+        String extended = fingerprint(original);
+        original.closeMutationLog();
+
+        assertEquals(extended, fingerprint(openWithLogThenClose()));
+        Files.delete(Paths.get(log));
+        SocialNetwork baseOnly = loadBase();
+        assertEquals(expected, fingerprint(baseOnly));
+    }
+
+    private SocialNetwork openWithLogThenClose() {
+        SocialNetwork network = openWithLog();
+        network.closeMutationLog();
+        return network;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class TextIndexTest {
+    private final TextIndex index = new TextIndex();
+    private final Map<Integer, Post> posts = new HashMap<>();
+
+    private void add(int postId, String content) {
+        Post post = new Post(postId, 1, content, "1.1.2025");
+        posts.put(postId, post);
+        index.add(post);
+    }
+
+    private void remove(int postId) {
+        index.remove(posts.remove(postId));
+    }
+
+    private static int[] ids(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void appendsSpanManyBlocksAndLargeGaps() {
+        TreeSet<Integer> all = new TreeSet<>(), even = new TreeSet<>();
+        int id = 0;
+        for (int i = 0; i < 1000; i++) {
+            id += (i % 97 == 0) ? 1_000_000 : 1 + i % 3; // multi-byte gaps now and then
+            add(id, (i % 2 == 0) ? "Every post, even" : "every POST");
+            all.add(id);
+            if (i % 2 == 0) even.add(id);
+        }
+        assertArrayEquals(ids(all), index.search("every", true));
+        // The long "every" list is probed for each "even" candidate, block by block
+        assertArrayEquals(ids(even), index.search("even every", true));
+        assertArrayEquals(ids(all), index.search("even every", false));
+        assertArrayEquals(new int[0], index.search("every missing", true));
+    }
+
+    @Test
+    void outOfOrderAddsAndRemovalsSurviveCompaction() {
+        Random random = new Random(7);
+        TreeSet<Integer> alpha = new TreeSet<>(), beta = new TreeSet<>();
+        for (int id = 1000; id < 1600; id++) {
+            add(id, (id % 3 == 0) ? "alpha beta" : "alpha");
+            alpha.add(id);
+            if (id % 3 == 0) beta.add(id);
+        }
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(2000); // mostly below the largest ID, so adds go to the side buffer
+            if (posts.containsKey(id)) {
+                remove(id);
+                alpha.remove(id);
+                beta.remove(id);
+            } else {
+                boolean withBeta = random.nextBoolean();
+                add(id, withBeta ? "beta; alpha!" : "Alpha");
+                alpha.add(id);
+                if (withBeta) beta.add(id);
+            }
+            if (step % 50 == 0) {
+                assertArrayEquals(ids(alpha), index.search("alpha", true));
+                assertArrayEquals(ids(beta), index.search("alpha beta", true));
+            }
+        }
+        assertArrayEquals(ids(alpha), index.search("ALPHA", true));
+        assertArrayEquals(ids(beta), index.search("beta", true));
+    }
+
+    @Test
+    void removedIdCanBeAddedAgain() {
+        for (int id = 1; id <= 300; id++) add(id, "gamma");
+        remove(150);
+        remove(300);
+        add(150, "gamma delta");
+        add(300, "gamma");
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int id = 1; id <= 300; id++) expected.add(id);
+        assertArrayEquals(ids(expected), index.search("gamma", true));
+        assertArrayEquals(new int[] {150}, index.search("delta gamma", true));
+
+        // Enough removals to force a compaction, then bring them back
+        for (int id = 1; id <= 100; id++) remove(id);
+        for (int id = 1; id <= 100; id++) add(id, "gamma");
+        assertArrayEquals(ids(expected), index.search("gamma", true));
+    }
+}